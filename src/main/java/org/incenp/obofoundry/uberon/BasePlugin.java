@@ -108,7 +108,7 @@ public abstract class BasePlugin implements Command {
 
         performOperation(state, line);
 
-        CommandLineHelper.maybeSaveOutput(line, state.getOntology());
+        saveOutput(state, line);
 
         return state;
     }
@@ -123,6 +123,19 @@ public abstract class BasePlugin implements Command {
      */
     public abstract void performOperation(CommandState state, CommandLine line) throws Exception;
 
+    /**
+     * Save the resulting ontology, if an output file has been specified. Commands
+     * may override this method if they need to write the ontology themselves.
+     * 
+     * @param state The internal state of ROBOT.
+     * @param line  The command line used to invoke the command.
+     * @throws Exception If any error occurred when attempting to save the
+     *                   ontology.
+     */
+    protected void saveOutput(CommandState state, CommandLine line) throws Exception {
+        CommandLineHelper.maybeSaveOutput(line, state.getOntology());
+    }
+
     /**
      * Create an IRI from a user-specified source. This delegates the task of
      * expanding CURIEs to ROBOT, which may use whatever informations it has (such
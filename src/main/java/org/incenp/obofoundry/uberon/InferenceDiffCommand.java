@@ -31,30 +31,62 @@
 
 package org.incenp.obofoundry.uberon;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.PrintStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.collections4.SetUtils;
+import org.incenp.obofoundry.uberon.util.Fingerprint;
+import org.incenp.obofoundry.uberon.util.HierarchyDiff;
+import org.incenp.obofoundry.uberon.util.IDiffReportWriter;
+import org.incenp.obofoundry.uberon.util.InferredHierarchy;
+import org.incenp.obofoundry.uberon.util.JSONDiffReportWriter;
+import org.incenp.obofoundry.uberon.util.LongHashSet;
+import org.incenp.obofoundry.uberon.util.MarkdownDiffReportWriter;
+import org.incenp.obofoundry.uberon.util.PrefixMatcher;
+import org.incenp.obofoundry.uberon.util.TSVDiffReportWriter;
 import org.obolibrary.robot.CommandLineHelper;
 import org.obolibrary.robot.CommandState;
-import org.obolibrary.robot.OntologyHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
-import org.semanticweb.owlapi.model.OWLNamedObject;
+import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.reasoner.InferenceType;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+import uk.ac.manchester.cs.owlapi.modularity.SyntacticLocalityModuleExtractor;
+
 /**
  * A command to produce a report on the consequences of logical changes between
  * two versions of the same ontology.
@@ -63,7 +95,7 @@ public class InferenceDiffCommand extends BasePlugin {
 
     private static final Logger logger = LoggerFactory.getLogger(InferenceDiffCommand.class);
 
-    private Set<String> basePrefixes = new HashSet<>();
+    private PrefixMatcher basePrefixes = new PrefixMatcher();
 
     public InferenceDiffCommand() {
         super("inference-diff", "report inference differences between two ontologies",
@@ -74,6 +106,10 @@ public class InferenceDiffCommand extends BasePlugin {
         options.addOption("r", "reasoner", true, "reasoner to use");
         options.addOption(null, "base-iri", true, "only check classes in the specified namespace(s)");
         options.addOption("d", "diff-output", true, "write report to the specified file");
+        options.addOption(null, "diff-format", true, "format of the report (md|tsv|jsonl)");
+        options.addOption(null, "use-modules", false, "only classify modules around the impacted classes");
+        options.addOption(null, "full", false, "report changes in the entire inferred hierarchy");
+        options.addOption(null, "base-snapshot", true, "read (or write) the base inferred hierarchy from (to) file");
     }
 
     @Override
@@ -83,69 +119,226 @@ public class InferenceDiffCommand extends BasePlugin {
             return;
         }
 
+        String format = line.getOptionValue("diff-format", "md");
+        if ( !format.equals("md") && !format.equals("tsv") && !format.equals("jsonl") ) {
+            throw new IllegalArgumentException(String.format("Invalid value for --diff-format: %s", format));
+        }
+
         if ( line.hasOption("base-iri") ) {
             for ( String iri : line.getOptionValues("base-iri") ) {
-                basePrefixes.add(getIRI(iri, "base-iri").toString());
+                basePrefixes.addIRIPrefix(getIRI(iri, "base-iri").toString(), null);
             }
         }
 
-        PrintStream out = new PrintStream(new File(line.getOptionValue("diff-output", "inference-diff.md")));
-
-        OWLOntology baseOnt = getIOHelper().loadOntology(new File(line.getOptionValue("base-file")),
-                new File(line.getOptionValue("base-catalog")));
-        OWLOntology headOnt = state.getOntology();
-
-        Set<OWLClass> impactedClasses = getImpactedClasses(baseOnt, headOnt);
-        out.format("Number of classes with modified logical definitions: %d\n", impactedClasses.size());
+        ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            return t;
+        });
 
-        if ( !impactedClasses.isEmpty() ) {
-            Function<OWLNamedObject, String> baseLabeller = OntologyHelper.getLabelFunction(baseOnt, true);
-            Function<OWLNamedObject, String> headLabeller = OntologyHelper.getLabelFunction(headOnt, true);
+        try {
+            Future<OWLOntology> baseFuture = executor.submit(() -> getIOHelper()
+                    .loadOntology(new File(line.getOptionValue("base-file")),
+                            new File(line.getOptionValue("base-catalog"))));
+            OWLOntology headOnt = state.getOntology();
 
+            // In full mode, the head ontology is always needed, so it can be classified
+            // while the base ontology is still being loaded.
             OWLReasonerFactory reasonerFactory = CommandLineHelper.getReasonerFactory(line);
-            OWLReasoner headReasoner = reasonerFactory.createReasoner(headOnt);
-            OWLReasoner baseReasoner = reasonerFactory.createReasoner(baseOnt);
+            boolean fullMode = line.hasOption("full");
+            boolean useModules = !fullMode && line.hasOption("use-modules");
+            Future<InferredHierarchy> headFuture = null;
+            if ( fullMode ) {
+                headFuture = executor.submit(() -> classify(reasonerFactory, headOnt, null));
+            }
 
-            out.append('\n');
-            for ( OWLClass klass : impactedClasses ) {
-                out.format("## [%s](%s)\n", headLabeller.apply(klass), klass.getIRI());
+            OWLOntology baseOnt = getResult(baseFuture);
 
-                Set<OWLClass> baseSubClasses = baseReasoner.getSubClasses(klass, false).getFlattened();
-                Set<OWLClass> headSubClasses = headReasoner.getSubClasses(klass, false).getFlattened();
+            if ( fullMode ) {
+                Future<InferredHierarchy> baseHierarchyFuture = getBaseHierarchy(executor, line, reasonerFactory,
+                        baseOnt, null, null);
+                InferredHierarchy headHierarchy = getResult(headFuture);
+                HierarchyDiff diff = new HierarchyDiff(getResult(baseHierarchyFuture), headHierarchy,
+                        basePrefixes.isEmpty() ? null : this::isInBase);
 
-                Set<OWLClass> removedSubClasses = SetUtils.difference(baseSubClasses, headSubClasses);
-                Set<OWLClass> addedSubClasses = SetUtils.difference(headSubClasses, baseSubClasses);
+                try ( IDiffReportWriter report = getReportWriter(line, format, baseOnt, headOnt,
+                        !diff.getAffectedClasses().isEmpty()) ) {
+                    report.writeHeader("Number of classes with changes in direct inferred subclasses",
+                            diff.getAffectedClasses().size());
+                    for ( OWLClass klass : diff.getAffectedClasses() ) {
+                        report.writeClass(klass, diff.getRemovedSubClasses(klass), diff.getAddedSubClasses(klass));
+                    }
+                }
+                return;
+            }
 
-                if ( removedSubClasses.isEmpty() && addedSubClasses.isEmpty() ) {
-                    out.append("No changes in inferred subclasses.\n");
-                } else {
-                    if ( !removedSubClasses.isEmpty() ) {
-                        out.format("Removed subclasses: %d\n", removedSubClasses.size());
-                        for ( OWLClass subclass : removedSubClasses ) {
-                            out.format("* [%s](%s)\n", baseLabeller.apply(subclass), subclass.getIRI());
+            Set<OWLAxiom> changedAxioms = new HashSet<>();
+            Set<OWLClass> impactedClasses = getImpactedClasses(baseOnt, headOnt, changedAxioms);
+            try ( IDiffReportWriter report = getReportWriter(line, format, baseOnt, headOnt,
+                    !impactedClasses.isEmpty()) ) {
+                report.writeHeader("Number of classes with modified logical definitions", impactedClasses.size());
+
+                if ( !impactedClasses.isEmpty() ) {
+                    Set<OWLEntity> seed = null;
+                    if ( useModules ) {
+                        seed = new HashSet<>(impactedClasses);
+                        for ( OWLAxiom axiom : changedAxioms ) {
+                            for ( OWLEntity entity : axiom.getSignature() ) {
+                                if ( isInBase(entity) ) {
+                                    seed.add(entity);
+                                }
+                            }
                         }
                     }
-                    if ( !addedSubClasses.isEmpty() ) {
-                        if ( !removedSubClasses.isEmpty() ) {
-                            out.append('\n');
-                        }
-                        out.format("Added subclasses: %d\n", addedSubClasses.size());
-                        for ( OWLClass subclass : addedSubClasses ) {
-                            out.format("* [%s](%s)\n", headLabeller.apply(subclass), subclass.getIRI());
-                        }
+                    Set<OWLEntity> headSeed = seed;
+                    headFuture = executor.submit(() -> classify(reasonerFactory,
+                            headSeed != null ? extractModule(headOnt, headSeed) : headOnt, impactedClasses));
+                    Future<InferredHierarchy> baseHierarchyFuture = getBaseHierarchy(executor, line,
+                            reasonerFactory, baseOnt, seed, impactedClasses);
+
+                    InferredHierarchy headHierarchy = getResult(headFuture);
+                    InferredHierarchy baseHierarchy = getResult(baseHierarchyFuture);
+
+                    for ( OWLClass klass : impactedClasses ) {
+                        Set<OWLClass> baseSubClasses = baseHierarchy.getSubClasses(klass);
+                        Set<OWLClass> headSubClasses = headHierarchy.getSubClasses(klass);
+
+                        report.writeClass(klass, SetUtils.difference(baseSubClasses, headSubClasses),
+                                SetUtils.difference(headSubClasses, baseSubClasses));
                     }
                 }
-                out.append('\n');
+            }
+        } finally {
+            // Make sure no classification is still running (with a reasoner attached
+            // to one of our ontologies) when we return.
+            executor.shutdownNow();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+        }
+
+    }
+
+    /*
+     * Creates the report writer for the format requested with --diff-format.
+     * Labels are only extracted from the ontologies if the report is going to
+     * contain any class.
+     */
+    private IDiffReportWriter getReportWriter(CommandLine line, String format, OWLOntology baseOnt,
+            OWLOntology headOnt, boolean needLabels) throws IOException {
+        Map<IRI, String> baseLabels = needLabels ? getLabels(baseOnt) : Collections.emptyMap();
+        Map<IRI, String> headLabels = needLabels ? getLabels(headOnt) : Collections.emptyMap();
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(line.getOptionValue("diff-output", "inference-diff." + format)),
+                StandardCharsets.UTF_8));
+        if ( format.equals("tsv") ) {
+            return new TSVDiffReportWriter(out, baseLabels, headLabels);
+        } else if ( format.equals("jsonl") ) {
+            return new JSONDiffReportWriter(out, baseLabels, headLabels);
+        } else {
+            return new MarkdownDiffReportWriter(out, baseLabels, headLabels);
+        }
+    }
+
+    /*
+     * Gets the labels of all entities in an ontology. This uses the same rule
+     * as ROBOT's OntologyHelper.getLabelFunction (which we used to rely on), so
+     * that the label picked for an entity with several labels does not change.
+     */
+    private Map<IRI, String> getLabels(OWLOntology ontology) {
+        Map<IRI, String> labels = new HashMap<>();
+        for ( OWLAnnotationAssertionAxiom ax : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION) ) {
+            if ( ax.getProperty().isLabel() && ax.getSubject() instanceof IRI && ax.getValue() instanceof OWLLiteral ) {
+                labels.put((IRI) ax.getSubject(), ((OWLLiteral) ax.getValue()).getLiteral());
+            }
+        }
+        return labels;
+    }
+
+    /*
+     * Starts getting the inferred hierarchy of the base ontology, either from a
+     * snapshot file if --base-snapshot is used, or by classifying the ontology
+     * (or a module of it if a module seed is given). The resulting hierarchy is
+     * restricted to the given roots (if any), unless it comes from a snapshot.
+     */
+    private Future<InferredHierarchy> getBaseHierarchy(ExecutorService executor, CommandLine line,
+            OWLReasonerFactory reasonerFactory, OWLOntology baseOnt, Set<OWLEntity> moduleSeed,
+            Set<OWLClass> roots) {
+        if ( line.hasOption("base-snapshot") ) {
+            File snapshotFile = new File(line.getOptionValue("base-snapshot"));
+            return executor.submit(() -> getBaseSnapshot(snapshotFile, baseOnt, reasonerFactory));
+        } else {
+            return executor.submit(() -> classify(reasonerFactory,
+                    moduleSeed != null ? extractModule(baseOnt, moduleSeed) : baseOnt, roots));
+        }
+    }
+
+    /*
+     * Classifies the ontology and takes an immutable snapshot of the part of the
+     * hierarchy we are interested in (or of the entire hierarchy if roots is
+     * null). The reasoner is always disposed of before returning. This is
+     * intended to be called on a separate thread.
+     */
+    private InferredHierarchy classify(OWLReasonerFactory reasonerFactory, OWLOntology ontology,
+            Set<OWLClass> roots) {
+        OWLReasoner reasoner = reasonerFactory.createReasoner(ontology);
+        try {
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            InferredHierarchy hierarchy = roots != null ? InferredHierarchy.fromReasoner(reasoner, roots)
+                    : InferredHierarchy.fromReasoner(reasoner);
+            logger.debug("Hierarchy snapshot of {} classes", hierarchy.size());
+            return hierarchy;
+        } finally {
+            reasoner.dispose();
+        }
+    }
+
+    /*
+     * Gets a snapshot of the entire hierarchy of the base ontology from the
+     * specified file, if the file exists and contains a snapshot of the same
+     * ontology as classified by the same reasoner; otherwise, classifies the
+     * base ontology and writes its snapshot to the file for later use.
+     */
+    private InferredHierarchy getBaseSnapshot(File file, OWLOntology baseOnt, OWLReasonerFactory reasonerFactory)
+            throws IOException {
+        String key = Fingerprint.of(baseOnt) + ":" + reasonerFactory.getClass().getName();
+        if ( file.exists() ) {
+            try {
+                InferredHierarchy hierarchy = InferredHierarchy.read(file, key,
+                        baseOnt.getOWLOntologyManager().getOWLDataFactory());
+                if ( hierarchy != null ) {
+                    logger.info("Using base hierarchy snapshot from {}", file);
+                    return hierarchy;
+                }
+                logger.info("Base hierarchy snapshot in {} is out of date", file);
+            } catch ( IOException e ) {
+                logger.warn("Cannot read base hierarchy snapshot: {}", e.getMessage());
             }
         }
 
-        out.close();
+        InferredHierarchy hierarchy = classify(reasonerFactory, baseOnt, null);
+        hierarchy.write(file, key);
+        logger.info("Wrote base hierarchy snapshot to {}", file);
+        return hierarchy;
     }
 
-    private Set<OWLClass> getImpactedClasses(OWLOntology baseOnt, OWLOntology headOnt) {
+    /*
+     * Waits for the result of a task submitted to the executor, re-throwing any
+     * exception thrown by the task.
+     */
+    private <T> T getResult(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch ( ExecutionException e ) {
+            if ( e.getCause() instanceof Exception ) {
+                throw (Exception) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private Set<OWLClass> getImpactedClasses(OWLOntology baseOnt, OWLOntology headOnt, Set<OWLAxiom> changedAxioms) {
         Set<OWLClass> klasses = new HashSet<>();
-        Set<OWLAxiom> uniqueAxioms = SetUtils.disjunction(baseOnt.getAxioms(Imports.INCLUDED),
-                headOnt.getAxioms(Imports.INCLUDED));
+        Set<OWLAxiom> uniqueAxioms = getUniqueAxioms(baseOnt, headOnt);
 
         logger.debug("Number of unique axioms on either side: {}", uniqueAxioms.size());
 
@@ -158,6 +351,7 @@ public class InferenceDiffCommand extends BasePlugin {
                         if ( isInBase(klass) ) {
                             logger.debug("Impacted class: {}", klass.getIRI());
                             klasses.add(klass);
+                            changedAxioms.add(axiom);
                         }
                     }
                 }
@@ -166,17 +360,100 @@ public class InferenceDiffCommand extends BasePlugin {
         return klasses;
     }
 
-    private boolean isInBase(OWLEntity entity) {
+    /*
+     * Finds the axioms that are only present on one side, without holding the
+     * axioms of both ontologies in memory at the same time. Axioms are streamed
+     * ontology by ontology and reduced to 64-bit fingerprints; only the axioms
+     * whose fingerprint is not found on the other side are kept as objects.
+     * Fingerprints of the base axioms are kept in iteration order, so that they
+     * do not need to be computed again when the base is streamed a second time.
+     */
+    private Set<OWLAxiom> getUniqueAxioms(OWLOntology baseOnt, OWLOntology headOnt) {
+        List<OWLOntology> baseClosure = new ArrayList<>(baseOnt.getImportsClosure());
+        long[] baseOrder = new long[baseOnt.getAxiomCount(Imports.INCLUDED)];
+        int n = 0;
+        LongHashSet baseFingerprints = new LongHashSet(baseOrder.length);
+        for ( OWLOntology o : baseClosure ) {
+            for ( OWLAxiom axiom : o.getAxioms() ) {
+                if ( isRelevant(axiom) ) {
+                    long fp = Fingerprint.of(axiom);
+                    baseFingerprints.add(fp);
+                    baseOrder[n++] = fp;
+                }
+            }
+        }
+
+        Set<OWLAxiom> uniqueAxioms = new HashSet<>();
+        LongHashSet commonFingerprints = new LongHashSet();
+        for ( OWLOntology o : headOnt.getImportsClosure() ) {
+            for ( OWLAxiom axiom : o.getAxioms() ) {
+                if ( !isRelevant(axiom) ) {
+                    continue;
+                }
+                long fp = Fingerprint.of(axiom);
+                if ( baseFingerprints.contains(fp) ) {
+                    commonFingerprints.add(fp);
+                } else {
+                    uniqueAxioms.add(axiom);
+                }
+            }
+        }
+        baseFingerprints = null;
+
+        n = 0;
+        for ( OWLOntology o : baseClosure ) {
+            for ( OWLAxiom axiom : o.getAxioms() ) {
+                if ( isRelevant(axiom) && !commonFingerprints.contains(baseOrder[n++]) ) {
+                    uniqueAxioms.add(axiom);
+                }
+            }
+        }
+
+        return uniqueAxioms;
+    }
+
+    /*
+     * Extracts a module that preserves all the subclasses of the seed entities.
+     * This needs to be a top-locality module, as bottom-locality modules only
+     * preserve superclasses. The extractor and the module use their own manager,
+     * so that they do not linger among the ontologies of the (shared) manager
+     * of the original ontology.
+     */
+    private OWLOntology extractModule(OWLOntology ontology, Set<OWLEntity> seed)
+            throws OWLOntologyCreationException {
+        OWLOntologyManager moduleManager = OWLManager.createOWLOntologyManager();
+        Set<OWLAxiom> axioms = ontology.getAxioms(Imports.INCLUDED);
+        SyntacticLocalityModuleExtractor extractor = new SyntacticLocalityModuleExtractor(moduleManager,
+                ontology.getOntologyID().getOntologyIRI().orNull(), axioms, ModuleType.TOP);
+        Set<OWLAxiom> module = extractor.extract(seed);
+        logger.info("Extracted module of {} axioms (out of {})", module.size(), axioms.size());
+        return moduleManager.createOntology(module);
+    }
+
+    /*
+     * Checks whether an axiom refers to at least one class in the namespaces
+     * specified with --base-iri. Other axioms cannot change the logical
+     * definition of any class we are interested in, so they are ignored as early
+     * as possible.
+     */
+    private boolean isRelevant(OWLAxiom axiom) {
         if ( basePrefixes.isEmpty() ) {
             return true;
         }
 
-        String iri = entity.getIRI().toString();
-        for ( String base : basePrefixes ) {
-            if ( iri.startsWith(base) ) {
+        for ( OWLClass klass : axiom.getClassesInSignature() ) {
+            if ( isInBase(klass) ) {
                 return true;
             }
         }
         return false;
     }
+
+    private boolean isInBase(OWLEntity entity) {
+        if ( basePrefixes.isEmpty() ) {
+            return true;
+        }
+
+        return basePrefixes.matches(entity.getIRI().toString());
+    }
 }
@@ -31,13 +31,24 @@
 
 package org.incenp.obofoundry.uberon;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 import org.apache.commons.cli.CommandLine;
 import org.incenp.obofoundry.uberon.util.EquivalenceSetMerger;
+import org.incenp.obofoundry.uberon.util.RenamingOntologyWriter;
 import org.obolibrary.obo2owl.Obo2OWLConstants;
 import org.obolibrary.robot.CommandLineHelper;
 import org.obolibrary.robot.CommandState;
+import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAnnotationProperty;
 import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
 
 /**
@@ -48,6 +59,8 @@ import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
  */
 public class MergeEquivalentSetsCommand extends BasePlugin {
 
+    private Map<OWLEntity, IRI> renamings;
+
     public MergeEquivalentSetsCommand() {
         super("merge-equivalent-sets", "merge sets of equivalent classes",
                 "robot merge-equivalent-sets [-s PREFIX[=SCORE]] [-l PREFIX[=SCORE]] [-c PREFIX[=SCORE]] [-d PREFIX[=SCORE]] [-P PREFIX]");
@@ -60,6 +73,12 @@ public class MergeEquivalentSetsCommand extends BasePlugin {
         options.addOption("d", "definition-priority", true,
                 "order of priority to determine which DEFINITION should be used post-merge");
         options.addOption("p", "preserve", true, "disallow merging classes with the specified prefixes");
+        options.addOption(null, "merge-individuals", false, "also merge individuals inferred to be the same");
+        options.addOption(null, "structural", false, "only merge asserted equivalences, without a reasoner");
+        options.addOption(null, "threads", true, "number of threads to use to process sets of equivalent classes");
+        options.addOption(null, "cache", true, "cache the sets of equivalent classes in the specified file");
+        options.addOption(null, "rename-on-output", false,
+                "rename merged classes while writing the output instead of in memory");
 
         options.addOption("r", "reasoner", true, "reasoner to use");
     }
@@ -94,8 +113,60 @@ public class MergeEquivalentSetsCommand extends BasePlugin {
             }
         }
 
-        merger.merge(state.getOntology(),
-                CommandLineHelper.getReasonerFactory(line).createReasoner(state.getOntology()));
+        if ( line.hasOption("merge-individuals") ) {
+            merger.setMergeIndividuals(true);
+        }
+
+        if ( line.hasOption("threads") ) {
+            try {
+                merger.setThreads(Integer.parseInt(line.getOptionValue("threads")));
+            } catch ( NumberFormatException e ) {
+                throw new IllegalArgumentException(
+                        String.format("Invalid value for --threads: %s", line.getOptionValue("threads")));
+            }
+        }
+
+        boolean deferRenaming = false;
+        if ( line.hasOption("rename-on-output") ) {
+            String output = line.getOptionValue("output");
+            if ( output == null || !output.endsWith(".ofn") ) {
+                throw new IllegalArgumentException(
+                        "--rename-on-output requires an output file in functional syntax (.ofn)");
+            }
+            deferRenaming = true;
+            merger.setDeferRenaming(true);
+        }
+
+        if ( line.hasOption("structural") ) {
+            merger.merge(state.getOntology());
+        } else {
+            if ( line.hasOption("cache") ) {
+                merger.setCacheFile(new File(line.getOptionValue("cache")));
+            }
+            merger.merge(state.getOntology(), CommandLineHelper.getReasonerFactory(line));
+        }
+
+        renamings = deferRenaming ? merger.getRenamings() : null;
+    }
+
+    @Override
+    protected void saveOutput(CommandState state, CommandLine line) throws Exception {
+        if ( renamings == null ) {
+            super.saveOutput(state, line);
+            return;
+        }
+
+        RenamingOntologyWriter writer = new RenamingOntologyWriter(state.getOntology(), renamings);
+        try ( Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(line.getOptionValue("output")), StandardCharsets.UTF_8)) ) {
+            writer.write(out);
+        }
+
+        // The ontology in memory has not been renamed, so it must not be seen by
+        // any subsequent command in the chain; without an ontology in the state,
+        // such a command will fail unless it loads its own input.
+        state.setOntology(null);
+        renamings = null;
     }
 
     private void setScores(OWLAnnotationProperty p, String[] prefixes, EquivalenceSetMerger merger) {
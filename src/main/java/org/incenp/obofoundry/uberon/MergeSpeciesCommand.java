@@ -33,12 +33,19 @@ package org.incenp.obofoundry.uberon;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.cli.CommandLine;
 import org.incenp.obofoundry.uberon.util.SpeciesMerger;
+import org.incenp.obofoundry.uberon.util.SpeciesMerger.MergePlan;
 import org.obolibrary.robot.CommandLineHelper;
 import org.obolibrary.robot.CommandState;
 import org.semanticweb.owlapi.model.IRI;
@@ -47,6 +54,8 @@ import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.stream.JsonWriter;
+
 /**
  * A command to fold species-specific classes to form a “composite” ontology.
  * <p>
@@ -72,6 +81,18 @@ public class MergeSpeciesCommand extends BasePlugin {
         options.addOption("d", "remove-declarations", false,
                 "enable removal of declaration axioms for translated classes");
         options.addOption("r", "reasoner", true, "reasoner to use");
+        options.addOption(null, "classify-once", false,
+                "classify the ontology only once for all merge operations");
+        options.addOption(null, "structural-search", false,
+                "find taxon-specific classes from asserted axioms when possible");
+        options.addOption(null, "skip-subset", true,
+                "do not refer to classes in the specified subset in unfolded axioms");
+        options.addOption(null, "buffer-changes", true,
+                "apply changes to the ontology once per merge operation or once per batch (operation|batch)");
+        options.addOption(null, "threads", true, "number of threads to use to translate axioms");
+        options.addOption(null, "defer-gcas", false,
+                "translate or remove general class axioms once for all merge operations");
+        options.addOption(null, "plan", true, "write a summary of the merge operations to file without merging");
     }
 
     @Override
@@ -117,20 +138,101 @@ public class MergeSpeciesCommand extends BasePlugin {
         } else if ( line.hasOption('G') ) {
             merger.setGCAMode(SpeciesMerger.GCAMergeMode.DELETE);
         }
+        if ( line.hasOption("defer-gcas") ) {
+            merger.setDeferGCAs(true);
+        }
         if ( line.hasOption('d') ) {
             merger.setRemoveDeclarationAxiom(true);
         }
+        if ( line.hasOption("structural-search") ) {
+            merger.setStructuralSearch(true);
+        }
+        if ( line.hasOption("skip-subset") ) {
+            merger.setSkippedSubsets(Arrays.asList(line.getOptionValues("skip-subset")));
+        }
+
+        if ( line.hasOption("threads") ) {
+            try {
+                merger.setThreads(Integer.parseInt(line.getOptionValue("threads")));
+            } catch ( NumberFormatException e ) {
+                throw new IllegalArgumentException(
+                        String.format("Invalid value for --threads: %s", line.getOptionValue("threads")));
+            }
+        }
+
+        String bufferMode = line.getOptionValue("buffer-changes");
+        if ( bufferMode != null && !bufferMode.equals("operation") && !bufferMode.equals("batch") ) {
+            throw new IllegalArgumentException(String.format("Invalid value for --buffer-changes: %s", bufferMode));
+        }
+        merger.setBufferChanges(bufferMode != null);
+
+        if ( line.hasOption("classify-once") || line.hasOption("plan") ) {
+            Map<IRI, List<IRI>> taxa = new LinkedHashMap<IRI, List<IRI>>();
+            for ( MergeOperation op : ops ) {
+                taxa.computeIfAbsent(op.taxonId, k -> new ArrayList<IRI>()).addAll(op.linkProperties);
+            }
+            logger.info("Finding taxon-specific classes for {} taxa", taxa.size());
+            merger.precomputeTaxonSpecificClasses(taxa);
+        }
+
+        if ( line.hasOption("plan") ) {
+            writePlan(line.getOptionValue("plan"), ops, merger);
+            merger.dispose();
+            reasoner.dispose();
+            return;
+        }
 
         for ( MergeOperation op : ops ) {
             for ( IRI property : op.linkProperties ) {
                 logger.info("Unfolding for species %s over %s links", op.taxonId, property);
                 merger.merge(op.taxonId, property, op.taxonLabel, op.includedProperties);
+                if ( "operation".equals(bufferMode) ) {
+                    logger.info("Applied {} changes", merger.applyChanges());
+                }
             }
         }
+        merger.mergeGeneralClassAxioms();
+        if ( bufferMode != null ) {
+            logger.info("Applied {} changes", merger.applyChanges());
+        }
 
+        merger.dispose();
         reasoner.dispose();
     }
 
+    private void writePlan(String file, List<MergeOperation> operations, SpeciesMerger merger) throws IOException {
+        try ( JsonWriter writer = new JsonWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) ) {
+            writePlan(writer, operations, merger);
+        }
+    }
+
+    private void writePlan(JsonWriter writer, List<MergeOperation> operations, SpeciesMerger merger)
+            throws IOException {
+        writer.setIndent("  ");
+        writer.beginArray();
+        for ( MergeOperation op : operations ) {
+            for ( IRI property : op.linkProperties ) {
+                MergePlan plan = merger.plan(op.taxonId, property);
+                if ( !plan.isTaxonFound() ) {
+                    logger.warn("Taxon {} not found in ontology", op.taxonId);
+                }
+
+                writer.beginObject();
+                writer.name("taxon").value(op.taxonId.toString());
+                writer.name("suffix").value(op.taxonLabel);
+                writer.name("property").value(property.toString());
+                writer.name("taxon_found").value(plan.isTaxonFound());
+                writer.name("taxon_specific_classes").value(plan.getTaxonSpecificClasses());
+                writer.name("merged_classes").value(plan.getMergedClasses());
+                writer.name("axioms").value(plan.getAxioms());
+                writer.name("general_class_axioms").value(plan.getGeneralClassAxioms());
+                writer.endObject();
+            }
+        }
+        writer.endArray();
+    }
+
     private void parseBatchFile(String file, List<MergeOperation> operations) throws IOException {
         BufferedReader reader = new BufferedReader(new FileReader(file));
         String line;
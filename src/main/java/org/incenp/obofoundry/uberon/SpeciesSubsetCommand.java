@@ -32,13 +32,13 @@
 package org.incenp.obofoundry.uberon;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
 import org.apache.commons.cli.CommandLine;
 import org.incenp.obofoundry.uberon.util.DefaultSpeciesSubsetter;
 import org.incenp.obofoundry.uberon.util.ISpeciesSubsetStrategy;
+import org.incenp.obofoundry.uberon.util.PrefixMatcher;
 import org.incenp.obofoundry.uberon.util.PreciseSpeciesSubsetter;
 import org.obolibrary.robot.CommandLineHelper;
 import org.obolibrary.robot.CommandState;
@@ -113,10 +113,10 @@ public class SpeciesSubsetCommand extends BasePlugin {
 
         if (line.hasOption("subset-name")) {
             IRI subsetIRI = getIRI(line.getOptionValue("subset-name"), "subset-name");
-            ArrayList<String> prefixes = new ArrayList<String>();
+            PrefixMatcher prefixes = new PrefixMatcher();
             if ( line.hasOption("only-tag-in") ) {
                 for ( String p : line.getOptionValues("only-tag-in") ) {
-                    prefixes.add(getIRI(p, "only-tag-in").toString());
+                    prefixes.addIRIPrefix(getIRI(p, "only-tag-in").toString(), null);
                 }
             }
             Set<OWLAxiom> annotations = makeInSubsetAnnotations(ontology, subset, subsetIRI, prefixes);
@@ -146,7 +146,7 @@ public class SpeciesSubsetCommand extends BasePlugin {
     }
 
     private Set<OWLAxiom> makeInSubsetAnnotations(OWLOntology ontology, Set<OWLClass> subset, IRI subsetIRI,
-            Collection<String> prefixes) {
+            PrefixMatcher prefixes) {
         OWLDataFactory factory = ontology.getOWLOntologyManager().getOWLDataFactory();
         OWLAnnotationProperty inSubset = factory.getOWLAnnotationProperty(IN_SUBSET);
 
@@ -154,19 +154,7 @@ public class SpeciesSubsetCommand extends BasePlugin {
         addAxioms.add(factory.getOWLSubAnnotationPropertyOfAxiom(factory.getOWLAnnotationProperty(subsetIRI),
                 factory.getOWLAnnotationProperty(SUBSET_PROPERTY)));
         for ( OWLClass c : subset ) {
-            String iri = c.getIRI().toString();
-            boolean include = prefixes == null || prefixes.size() == 0;
-
-            if ( !include && prefixes != null ) {
-                for ( String prefix : prefixes ) {
-                    if ( iri.startsWith(prefix) ) {
-                        include = true;
-                        continue;
-                    }
-                }
-            }
-
-            if ( include ) {
+            if ( prefixes == null || prefixes.isEmpty() || prefixes.matches(c.getIRI().toString()) ) {
                 addAxioms.add(factory.getOWLAnnotationAssertionAxiom(inSubset, c.getIRI(), subsetIRI));
             }
         }
@@ -0,0 +1,95 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+
+/**
+ * Base class for the writers of inference-diff reports. It holds the output
+ * writer and the labels to use for classes of either side of the diff.
+ */
+abstract class AbstractDiffReportWriter implements IDiffReportWriter {
+
+    protected Writer out;
+    private Map<IRI, String> baseLabels;
+    private Map<IRI, String> headLabels;
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param out        The writer to write the report to; it should be buffered.
+     * @param baseLabels The labels of the classes in the base ontology.
+     * @param headLabels The labels of the classes in the new ontology.
+     */
+    protected AbstractDiffReportWriter(Writer out, Map<IRI, String> baseLabels, Map<IRI, String> headLabels) {
+        this.out = out;
+        this.baseLabels = baseLabels;
+        this.headLabels = headLabels;
+    }
+
+    /**
+     * Gets the label of a class in the base ontology, or its IRI if it has no
+     * label.
+     * 
+     * @param c The class.
+     * @return The label.
+     */
+    protected String getBaseLabel(OWLClass c) {
+        return getLabel(baseLabels, c);
+    }
+
+    /**
+     * Gets the label of a class in the new ontology, or its IRI if it has no
+     * label.
+     * 
+     * @param c The class.
+     * @return The label.
+     */
+    protected String getHeadLabel(OWLClass c) {
+        return getLabel(headLabels, c);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private String getLabel(Map<IRI, String> labels, OWLClass c) {
+        String label = labels.get(c.getIRI());
+        return label != null ? label : c.getIRI().toString();
+    }
+}
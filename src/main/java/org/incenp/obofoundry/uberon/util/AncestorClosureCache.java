@@ -0,0 +1,236 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+/**
+ * A cache of the inferred ancestors of classes, used by {@link SpeciesMerger}
+ * to decide whether a translated SubClassOf axiom is redundant.
+ * <p>
+ * Classes are mapped to integer indexes, so that the ancestors of a class can
+ * be stored as a bitset. The cache also maintains an index associating each
+ * superclass expression to the named classes that are asserted to be
+ * subclasses of that expression in the ontology. Whether a class has an
+ * ancestor that is asserted to be a subclass of a given expression can then be
+ * checked with a single bitset intersection.
+ * <p>
+ * The index of asserted subclasses is built once when the cache is created,
+ * and is then kept up-to-date with changes to the ontology, provided the cache
+ * is registered as a listener to the ontology manager. Changes that have not
+ * been applied yet can also be reported explicitly with
+ * {@link #addToldSubClass(OWLSubClassOfAxiom)} and
+ * {@link #removeToldSubClass(OWLSubClassOfAxiom)}, in which case the cache must
+ * not be listening when those changes are eventually applied.
+ * <p>
+ * The inferred ancestors are obtained from the reasoner the first time they
+ * are needed, and are not updated afterwards until {@link #resetAncestors()}
+ * is called; they are therefore only valid as long as the reasoner is not
+ * flushed.
+ */
+class AncestorClosureCache implements OWLOntologyChangeListener {
+
+    private OWLOntology ontology;
+    private OWLReasoner reasoner;
+
+    private Map<OWLClass, Integer> classIndex = new HashMap<OWLClass, Integer>();
+    private Map<OWLClass, BitSet> superClasses = new HashMap<OWLClass, BitSet>();
+    private Map<OWLClass, BitSet> equivalentClasses = new HashMap<OWLClass, BitSet>();
+    private Map<OWLClassExpression, BitSet> toldSubClasses = new HashMap<OWLClassExpression, BitSet>();
+    private Map<OWLAxiom, Integer> toldCounts = new HashMap<OWLAxiom, Integer>();
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param ontology The ontology whose asserted SubClassOf axioms should be
+     *                 indexed (imports are not considered).
+     * @param reasoner The reasoner to query for inferred ancestors.
+     */
+    AncestorClosureCache(OWLOntology ontology, OWLReasoner reasoner) {
+        this.ontology = ontology;
+        this.reasoner = reasoner;
+
+        for ( OWLSubClassOfAxiom axiom : ontology.getAxioms(AxiomType.SUBCLASS_OF) ) {
+            addToldSubClass(axiom);
+        }
+    }
+
+    /**
+     * Checks whether a class is already known to be a subclass of the given
+     * expression. This is the case if either (1) the expression is a named class
+     * that is an inferred superclass of the class, or (2) the class or one of its
+     * inferred superclasses or equivalent classes is asserted to be a subclass of
+     * the expression.
+     * 
+     * @param c   The class to check.
+     * @param sup The putative superclass expression.
+     * @return {@code true} if {@code c} is already known to be a subclass of
+     *         {@code sup}, otherwise {@code false}.
+     */
+    boolean isKnownSubClassOf(OWLClass c, OWLClassExpression sup) {
+        BitSet supers = superClasses.get(c);
+        if ( supers == null ) {
+            load(c);
+            supers = superClasses.get(c);
+        }
+
+        if ( !sup.isAnonymous() ) {
+            Integer i = classIndex.get(sup.asOWLClass());
+            if ( i != null && supers.get(i) ) {
+                return true;
+            }
+        }
+
+        BitSet told = toldSubClasses.get(sup);
+        return told != null && (told.intersects(supers) || told.intersects(equivalentClasses.get(c)));
+    }
+
+    /**
+     * Queries the reasoner for the ancestors of the given class, if that has not
+     * already been done. Once the ancestors of all the classes of interest have
+     * been loaded, the {@link #isKnownSubClassOf(OWLClass, OWLClassExpression)}
+     * method may safely be called from several threads, as long as the ontology
+     * is not modified at the same time.
+     * 
+     * @param c The class whose ancestors should be loaded.
+     */
+    void load(OWLClass c) {
+        if ( superClasses.containsKey(c) ) {
+            return;
+        }
+
+        BitSet supers = new BitSet();
+        for ( OWLClass p : reasoner.getSuperClasses(c, false).getFlattened() ) {
+            supers.set(getIndex(p));
+        }
+        superClasses.put(c, supers);
+
+        BitSet equivs = new BitSet();
+        for ( OWLClass e : reasoner.getEquivalentClasses(c).getEntities() ) {
+            equivs.set(getIndex(e));
+        }
+        equivalentClasses.put(c, equivs);
+    }
+
+    /**
+     * Forgets the inferred ancestors of all classes. This must be called
+     * whenever the reasoner is flushed. The index of asserted subclasses is
+     * kept.
+     */
+    void resetAncestors() {
+        superClasses.clear();
+        equivalentClasses.clear();
+    }
+
+    /**
+     * Records that a SubClassOf axiom is asserted in the ontology. The same
+     * axiom may be recorded several times with different annotations.
+     * 
+     * @param axiom The asserted axiom.
+     */
+    void addToldSubClass(OWLSubClassOfAxiom axiom) {
+        if ( axiom.getSubClass().isAnonymous() ) {
+            return;
+        }
+
+        if ( toldCounts.merge(axiom.getAxiomWithoutAnnotations(), 1, Integer::sum) == 1 ) {
+            toldSubClasses.computeIfAbsent(axiom.getSuperClass(), k -> new BitSet())
+                    .set(getIndex(axiom.getSubClass().asOWLClass()));
+        }
+    }
+
+    /**
+     * Records that a SubClassOf axiom is no longer asserted in the ontology.
+     * The subclass is only removed from the index once all the annotated
+     * variants of the axiom have been removed.
+     * 
+     * @param axiom The removed axiom.
+     */
+    void removeToldSubClass(OWLSubClassOfAxiom axiom) {
+        if ( axiom.getSubClass().isAnonymous() ) {
+            return;
+        }
+
+        OWLAxiom key = axiom.getAxiomWithoutAnnotations();
+        Integer n = toldCounts.get(key);
+        if ( n == null ) {
+            return;
+        } else if ( n > 1 ) {
+            toldCounts.put(key, n - 1);
+        } else {
+            toldCounts.remove(key);
+            toldSubClasses.get(axiom.getSuperClass()).clear(getIndex(axiom.getSubClass().asOWLClass()));
+        }
+    }
+
+    @Override
+    public void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+        for ( OWLOntologyChange change : changes ) {
+            if ( !change.isAxiomChange() || !change.getOntology().equals(ontology) ) {
+                continue;
+            }
+
+            OWLAxiom axiom = change.getAxiom();
+            if ( !(axiom instanceof OWLSubClassOfAxiom) ) {
+                continue;
+            }
+
+            if ( change.isAddAxiom() ) {
+                addToldSubClass((OWLSubClassOfAxiom) axiom);
+            } else {
+                removeToldSubClass((OWLSubClassOfAxiom) axiom);
+            }
+        }
+    }
+
+    private int getIndex(OWLClass c) {
+        Integer i = classIndex.get(c);
+        if ( i == null ) {
+            i = classIndex.size();
+            classIndex.put(c, i);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLEquivalentObjectPropertiesAxiom;
+import org.semanticweb.owlapi.model.OWLObjectCardinalityRestriction;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLObjectUnionOf;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubObjectPropertyOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+import org.semanticweb.owlapi.model.parameters.Imports;
+
+/**
+ * Finds the classes that are subclasses of a {@code property some taxon}
+ * expression using only the axioms asserted in an ontology (and its imports),
+ * without a reasoner.
+ * <p>
+ * Starting from the taxon, the finder walks the asserted hierarchy downwards,
+ * first collecting the subclasses of the taxon, then the classes that are
+ * asserted to be related to any of those taxa through the property, then their
+ * own asserted subclasses (and, if the property is transitive, the classes
+ * that are related to them through the property), and so on. A class is
+ * considered to be asserted to be a subclass of an expression if it is
+ * declared as a subclass of, or equivalent to, either the expression itself
+ * or an intersection containing the expression.
+ * <p>
+ * When the finder encounters a relevant axiom that it cannot interpret
+ * structurally (for example, a general class axiom, a union, or any axiom
+ * other than a SubClassOf, EquivalentClasses, DisjointClasses, or declaration
+ * axiom, such as a property domain or a disjoint union), or if the property
+ * has sub-properties, is the target of a property chain, or is declared as
+ * the inverse of another property, it gives up and returns {@code null}, so
+ * that the caller can fall back to a proper classification. Disjointness
+ * axioms are accepted because they can only make classes unsatisfiable, and
+ * the caller is expected to deal with unsatisfiable classes separately.
+ * <p>
+ * The finder also gives up when a class it visits has a logical definition
+ * (such as {@code N EquivalentTo M and (has_part some Q)}), since any class
+ * fulfilling the definition would be an inferred subclass that cannot be
+ * found by walking the asserted hierarchy. The only exception is when the
+ * definition itself restricts the class to one of the taxa (as in
+ * {@code N EquivalentTo M and (part_of some TAXON)}), because the classes
+ * fulfilling such a definition are then found anyway when looking for the
+ * classes related to that taxon.
+ */
+class AssertedSubClassFinder {
+
+    private OWLOntology ontology;
+    private OWLDataFactory factory;
+    private OWLObjectProperty property;
+    private boolean transitive;
+
+    private Set<OWLClass> taxa = new HashSet<OWLClass>();
+    private Set<OWLClass> subClasses = new HashSet<OWLClass>();
+    private Deque<OWLClass> pendingTaxa = new ArrayDeque<OWLClass>();
+    private Deque<OWLClass> pendingClasses = new ArrayDeque<OWLClass>();
+    private boolean complete;
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param ontology The ontology to search. Axioms from the imports closure
+     *                 are also considered.
+     */
+    AssertedSubClassFinder(OWLOntology ontology) {
+        this.ontology = ontology;
+        factory = ontology.getOWLOntologyManager().getOWLDataFactory();
+    }
+
+    /**
+     * Finds all the classes that are asserted to be subclasses of
+     * {@code property some taxon}.
+     * 
+     * @param property The linking property.
+     * @param taxon    The taxon.
+     * @return The set of subclasses, or {@code null} if the asserted axioms are
+     *         not enough to reliably find all the subclasses.
+     */
+    Set<OWLClass> find(OWLObjectProperty property, OWLClass taxon) {
+        this.property = property;
+        taxa.clear();
+        subClasses.clear();
+        pendingTaxa.clear();
+        pendingClasses.clear();
+        complete = isSimpleProperty();
+        transitive = isTransitiveProperty();
+
+        taxa.add(taxon);
+        pendingTaxa.add(taxon);
+        while ( complete && (!pendingTaxa.isEmpty() || !pendingClasses.isEmpty()) ) {
+            if ( !pendingTaxa.isEmpty() ) {
+                OWLClass t = pendingTaxa.remove();
+                visit(t, t, taxa, pendingTaxa);
+                visit(t, factory.getOWLObjectSomeValuesFrom(property, t), subClasses, pendingClasses);
+            } else {
+                OWLClass c = pendingClasses.remove();
+                visit(c, c, subClasses, pendingClasses);
+                if ( transitive ) {
+                    visit(c, factory.getOWLObjectSomeValuesFrom(property, c), subClasses, pendingClasses);
+                }
+            }
+        }
+
+        return complete ? new HashSet<OWLClass>(subClasses) : null;
+    }
+
+    /*
+     * Checks whether the property can be safely used without a reasoner, i.e.
+     * whether nothing else than the property itself can imply the property.
+     */
+    private boolean isSimpleProperty() {
+        for ( OWLOntology o : ontology.getImportsClosure() ) {
+            for ( OWLSubObjectPropertyOfAxiom ax : o.getObjectSubPropertyAxiomsForSuperProperty(property) ) {
+                if ( !ax.getSubProperty().equals(property) ) {
+                    return false;
+                }
+            }
+            for ( OWLEquivalentObjectPropertiesAxiom ax : o.getEquivalentObjectPropertiesAxioms(property) ) {
+                if ( ax.getProperties().size() > 1 ) {
+                    return false;
+                }
+            }
+            for ( OWLSubPropertyChainOfAxiom ax : o.getAxioms(AxiomType.SUB_PROPERTY_CHAIN_OF) ) {
+                if ( ax.getSuperProperty().equals(property) ) {
+                    return false;
+                }
+            }
+            // With an inverse, "inverse(other) some T" is the same as "property some T".
+            if ( !o.getInverseObjectPropertyAxioms(property).isEmpty() ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Checks whether the property is asserted to be transitive.
+     */
+    private boolean isTransitiveProperty() {
+        for ( OWLOntology o : ontology.getImportsClosure() ) {
+            if ( !o.getTransitiveObjectPropertyAxioms(property).isEmpty() ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Looks at all the axioms referencing the given class, to find the named
+     * classes that are asserted to be subclasses of the target expression; any
+     * such class not already known is added to the given set and queue.
+     */
+    private void visit(OWLClass c, OWLClassExpression target, Set<OWLClass> found, Deque<OWLClass> queue) {
+        for ( OWLAxiom ax : ontology.getReferencingAxioms(c, Imports.INCLUDED) ) {
+            if ( ax.isOfType(AxiomType.SUBCLASS_OF) ) {
+                OWLSubClassOfAxiom sax = (OWLSubClassOfAxiom) ax;
+                Boolean r = implies(sax.getSuperClass(), target);
+                if ( r == null || (r && sax.getSubClass().isAnonymous()) ) {
+                    complete = false;
+                } else if ( r ) {
+                    add(sax.getSubClass().asOWLClass(), found, queue);
+                }
+            } else if ( ax.isOfType(AxiomType.EQUIVALENT_CLASSES) ) {
+                OWLEquivalentClassesAxiom eax = (OWLEquivalentClassesAxiom) ax;
+                boolean defined = target.equals(c) && eax.contains(c);
+                for ( OWLClassExpression ce : eax.getClassExpressions() ) {
+                    Boolean r = implies(ce, target);
+                    if ( r == null || (r && eax.getNamedClasses().isEmpty()) ) {
+                        complete = false;
+                    } else if ( r ) {
+                        for ( OWLClass n : eax.getNamedClasses() ) {
+                            add(n, found, queue);
+                        }
+                    } else if ( defined && ce.isAnonymous() && (found != subClasses || !isTaxonRestricted(ce)) ) {
+                        // Any class fulfilling the definition is a subclass of the visited
+                        // class, but we cannot find such classes structurally.
+                        complete = false;
+                    }
+                }
+            } else if ( !ax.isOfType(AxiomType.DECLARATION) && !ax.isOfType(AxiomType.DISJOINT_CLASSES) ) {
+                // Any other axiom (domain or range, disjoint union, class assertion,
+                // etc.) may imply subclasses that we cannot find structurally.
+                // Disjointness axioms can only make classes unsatisfiable, and
+                // unsatisfiable classes are taken care of by the caller.
+                complete = false;
+            }
+
+            if ( !complete ) {
+                return;
+            }
+        }
+    }
+
+    /*
+     * Checks whether a class expression is an existential restriction over the
+     * linking property to an already known taxon (or, if the property is
+     * transitive, to an already known taxon-specific class), or an intersection
+     * containing such a restriction. Any class fulfilling such an expression is
+     * then necessarily a subclass of the restriction, and as such will be found
+     * when the restriction is itself searched for.
+     */
+    private boolean isTaxonRestricted(OWLClassExpression ce) {
+        switch ( ce.getClassExpressionType() ) {
+        case OBJECT_INTERSECTION_OF:
+            for ( OWLClassExpression op : ((OWLObjectIntersectionOf) ce).getOperands() ) {
+                if ( isTaxonRestricted(op) ) {
+                    return true;
+                }
+            }
+            return false;
+
+        case OBJECT_SOME_VALUES_FROM:
+            OWLObjectSomeValuesFrom svf = (OWLObjectSomeValuesFrom) ce;
+            if ( svf.getProperty().equals(property) && !svf.getFiller().isAnonymous() ) {
+                OWLClass filler = svf.getFiller().asOWLClass();
+                return taxa.contains(filler) || (transitive && subClasses.contains(filler));
+            }
+            return false;
+
+        default:
+            return false;
+        }
+    }
+
+    /*
+     * Records a newly found class, unless it has already been seen.
+     */
+    private void add(OWLClass c, Set<OWLClass> found, Deque<OWLClass> queue) {
+        if ( !c.isBottomEntity() && found.add(c) ) {
+            queue.add(c);
+        }
+    }
+
+    /*
+     * Checks whether the given expression is structurally a subclass of the
+     * target expression (which is either a named class or an existential
+     * restriction over the linking property). Returns TRUE if it is, FALSE if it
+     * is not (or cannot be because the target does not appear in a relevant
+     * position), and null if that cannot be decided without a reasoner.
+     */
+    private Boolean implies(OWLClassExpression ce, OWLClassExpression target) {
+        if ( ce.equals(target) ) {
+            return true;
+        }
+
+        switch ( ce.getClassExpressionType() ) {
+        case OBJECT_INTERSECTION_OF:
+            boolean unknown = false;
+            for ( OWLClassExpression op : ((OWLObjectIntersectionOf) ce).getOperands() ) {
+                Boolean r = implies(op, target);
+                if ( r == null ) {
+                    unknown = true;
+                } else if ( r ) {
+                    return true;
+                }
+            }
+            return unknown ? null : false;
+
+        case OBJECT_UNION_OF:
+            int n = 0;
+            Set<OWLClassExpression> operands = ((OWLObjectUnionOf) ce).getOperands();
+            for ( OWLClassExpression op : operands ) {
+                Boolean r = implies(op, target);
+                if ( r == null ) {
+                    return null;
+                } else if ( r ) {
+                    n += 1;
+                }
+            }
+            return n == 0 ? false : n == operands.size() ? true : null;
+
+        case OBJECT_SOME_VALUES_FROM:
+            OWLObjectSomeValuesFrom svf = (OWLObjectSomeValuesFrom) ce;
+            return impliesRestriction(svf.getProperty(), svf.getFiller(), target);
+
+        case OBJECT_MIN_CARDINALITY:
+        case OBJECT_EXACT_CARDINALITY:
+            OWLObjectCardinalityRestriction ocr = (OWLObjectCardinalityRestriction) ce;
+            if ( ocr.getCardinality() > 0 ) {
+                return impliesRestriction(ocr.getProperty(), ocr.getFiller(), target);
+            }
+            return false;
+
+        default:
+            return false;
+        }
+    }
+
+    /*
+     * Checks whether an existential restriction over the given property and
+     * filler is structurally a subclass of the target expression.
+     */
+    private Boolean impliesRestriction(OWLObjectPropertyExpression p, OWLClassExpression filler,
+            OWLClassExpression target) {
+        if ( p.isAnonymous() && p.getNamedProperty().equals(property) ) {
+            // An inverse of the property itself; we cannot tell.
+            return null;
+        }
+        if ( !p.equals(property) || !(target instanceof OWLObjectSomeValuesFrom) ) {
+            return false;
+        }
+
+        OWLObjectSomeValuesFrom svf = (OWLObjectSomeValuesFrom) target;
+        Boolean r = implies(filler, svf.getFiller());
+        if ( r != null && !r && transitive ) {
+            r = implies(filler, target);
+        }
+        return r;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * A file-based cache of the sets of equivalent entities ("cliques") found by
+ * {@link EquivalenceSetMerger}.
+ * <p>
+ * The cliques are stored as a mapping from each entity to the leader of its
+ * clique, along with a key computed from the logical axioms of the ontology
+ * (and its imports) and from any option that may change the cliques found.
+ * Cached cliques are only used if the key matches, that is if the logical
+ * axioms have not changed since the cache was written.
+ */
+class CliqueCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CliqueCache.class);
+
+    private File file;
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param file The cache file.
+     */
+    CliqueCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Computes the cache key for an ontology. The key is made of the number of
+     * logical axioms and of an order-independent 64-bit hash of those axioms,
+     * followed by the given options.
+     * 
+     * @param ontology The ontology.
+     * @param options  A string representing the options that affect the
+     *                 cliques.
+     * @return The cache key.
+     */
+    String computeKey(OWLOntology ontology, String options) {
+        return Fingerprint.of(ontology) + ":" + options;
+    }
+
+    /**
+     * Loads the cliques from the cache file.
+     * 
+     * @param ontology The ontology the cliques are for.
+     * @param key      The expected cache key.
+     * @return The cached cliques, or {@code null} if the cache file does not
+     *         exist, cannot be read, or has been written for a different key.
+     */
+    List<Set<? extends OWLEntity>> load(OWLOntology ontology, String key) {
+        if ( !file.exists() ) {
+            return null;
+        }
+
+        OWLDataFactory factory = ontology.getOWLOntologyManager().getOWLDataFactory();
+        Map<String, Set<OWLEntity>> cliques = new LinkedHashMap<String, Set<OWLEntity>>();
+        try ( JsonReader reader = new JsonReader(
+                new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) ) {
+            reader.beginObject();
+            if ( !reader.nextName().equals("key") || !reader.nextString().equals(key) ) {
+                logger.info("Clique cache {} is out of date", file);
+                return null;
+            }
+            reader.nextName();
+            reader.beginArray();
+            while ( reader.hasNext() ) {
+                reader.beginArray();
+                EntityType<?> type = getEntityType(reader.nextString());
+                IRI entity = IRI.create(reader.nextString());
+                String leader = reader.nextString();
+                reader.endArray();
+                if ( type == null ) {
+                    return null;
+                }
+                cliques.computeIfAbsent(leader, k -> new LinkedHashSet<OWLEntity>())
+                        .add(factory.getOWLEntity(type, entity));
+            }
+            reader.endArray();
+            reader.endObject();
+        } catch ( IOException | IllegalStateException e ) {
+            logger.warn("Cannot read clique cache {}: {}", file, e.getMessage());
+            return null;
+        }
+
+        return new ArrayList<Set<? extends OWLEntity>>(cliques.values());
+    }
+
+    /**
+     * Writes cliques to the cache file.
+     * 
+     * @param key     The cache key.
+     * @param cliques The cliques to cache.
+     * @param leaders The leader of each entity.
+     */
+    void save(String key, List<Set<? extends OWLEntity>> cliques, Map<OWLEntity, IRI> leaders) {
+        try ( JsonWriter writer = new JsonWriter(
+                new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) ) {
+            writer.beginObject();
+            writer.name("key").value(key);
+            writer.name("entities");
+            writer.beginArray();
+            for ( Set<? extends OWLEntity> clique : cliques ) {
+                String leader = null;
+                for ( OWLEntity e : clique ) {
+                    if ( leaders.containsKey(e) ) {
+                        leader = leaders.get(e).toString();
+                        break;
+                    }
+                }
+                for ( OWLEntity e : clique ) {
+                    writer.beginArray();
+                    writer.value(e.getEntityType().getName());
+                    writer.value(e.getIRI().toString());
+                    writer.value(leader);
+                    writer.endArray();
+                }
+            }
+            writer.endArray();
+            writer.endObject();
+        } catch ( IOException e ) {
+            logger.warn("Cannot write clique cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private EntityType<?> getEntityType(String name) {
+        for ( EntityType<?> type : EntityType.values() ) {
+            if ( type.getName().equals(name) ) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -31,11 +31,21 @@
 
 package org.incenp.obofoundry.uberon.util;
 
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import org.obolibrary.obo2owl.OWLAPIOwl2Obo;
 import org.obolibrary.obo2owl.Obo2OWLConstants.Obo2OWLVocabulary;
@@ -52,10 +62,15 @@ import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLSameIndividualAxiom;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.reasoner.Node;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.semanticweb.owlapi.util.OWLEntityRenamer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A helper class to merge classes that are inferred to be equivalent.
@@ -65,10 +80,23 @@ import org.semanticweb.owlapi.util.OWLEntityRenamer;
  * in OWLTools.
  */
 public class EquivalenceSetMerger {
-    private Map<String, Double> prefixScoreMap = new HashMap<String, Double>();
-    private Map<OWLAnnotationProperty, Map<String, Double>> propertyPrefixScoreMap = new HashMap<OWLAnnotationProperty, Map<String, Double>>();
-    private Set<String> noMergePrefixes = new HashSet<String>();
+
+    private static final Logger logger = LoggerFactory.getLogger(EquivalenceSetMerger.class);
+
+    private static final IRI OBO_ID = IRI.create("http://www.geneontology.org/formats/oboInOwl#id");
+
+    private static final Comparator<OWLEntity> ENTITY_ORDER = Comparator
+            .comparing((OWLEntity e) -> e.getIRI().toString()).thenComparing(e -> e.getEntityType().getName());
+
+    private PrefixMatcher prefixScores = new PrefixMatcher();
+    private Map<OWLAnnotationProperty, PrefixMatcher> propertyPrefixScores = new HashMap<OWLAnnotationProperty, PrefixMatcher>();
+    private PrefixMatcher preservedPrefixes = new PrefixMatcher();
     private boolean addEquivalenceAxioms = true;
+    private boolean mergeIndividuals = false;
+    private boolean deferRenaming = false;
+    private Map<OWLEntity, IRI> renamings = new HashMap<OWLEntity, IRI>();
+    private File cacheFile = null;
+    private int threads = 1;
 
     /**
      * Set the priority score for a given prefix. When two (or more) classes are
@@ -80,7 +108,7 @@ public class EquivalenceSetMerger {
      *               is that IRIs with the specified prefix will be chosen.
      */
     public void setPrefixScore(String prefix, Double score) {
-        prefixScoreMap.put(prefix, score);
+        prefixScores.addPrefix(prefix, score);
     }
 
     /**
@@ -93,10 +121,10 @@ public class EquivalenceSetMerger {
      * @param score  The associated score.
      */
     public void setPropertyPrefixScore(OWLAnnotationProperty p, String prefix, Double score) {
-        if ( !propertyPrefixScoreMap.containsKey(p)) {
-            propertyPrefixScoreMap.put(p, new HashMap<String, Double>());
+        if ( !propertyPrefixScores.containsKey(p)) {
+            propertyPrefixScores.put(p, new PrefixMatcher());
         }
-        propertyPrefixScoreMap.get(p).put(prefix, score);
+        propertyPrefixScores.get(p).addPrefix(prefix, score);
     }
 
     /**
@@ -106,7 +134,7 @@ public class EquivalenceSetMerger {
      * @param prefix The prefix to preserve.
      */
     public void addPreservedPrefix(String prefix) {
-        noMergePrefixes.add(prefix);
+        preservedPrefixes.addPrefix(prefix, null);
     }
 
     /**
@@ -121,6 +149,66 @@ public class EquivalenceSetMerger {
         addEquivalenceAxioms = b;
     }
 
+    /**
+     * Enable or disable the merging of individuals that are inferred to be the
+     * same. This is disabled by default, because finding such individuals
+     * requires the reasoner to realise the ontology, which can be expensive.
+     * 
+     * @param b {@code true} to merge identical individuals as well as equivalent
+     *          classes.
+     */
+    public void setMergeIndividuals(boolean b) {
+        mergeIndividuals = b;
+    }
+
+    /**
+     * Enable or disable deferred renaming of merged entities. By default, once
+     * the representative of each clique has been chosen, all the other members
+     * of the clique are renamed in the ontology to the IRI of the
+     * representative. If this option is enabled, the ontology is left with the
+     * original IRIs, and the caller is responsible for doing the renaming (for
+     * example with {@link RenamingOntologyWriter}), using the map returned by
+     * {@link #getRenamings()}.
+     * 
+     * @param b {@code true} to defer the renaming of merged entities.
+     */
+    public void setDeferRenaming(boolean b) {
+        deferRenaming = b;
+    }
+
+    /**
+     * Set the number of threads to use to process the cliques. With more than one
+     * thread, the decisions for each clique (choice of the representative,
+     * cross-references to add, annotations to remove) are made in parallel, and
+     * then applied to the ontology at once. The result does not depend on the
+     * number of threads.
+     * 
+     * @param n The number of threads to use (default is 1).
+     */
+    public void setThreads(int n) {
+        threads = n > 0 ? n : 1;
+    }
+
+    /**
+     * Set the file to use to cache the sets of equivalent entities between runs.
+     * This is only used by {@link #merge(OWLOntology, OWLReasonerFactory)}.
+     * 
+     * @param file The cache file, or {@code null} to disable caching.
+     */
+    public void setCacheFile(File file) {
+        cacheFile = file;
+    }
+
+    /**
+     * Get the renamings resulting from the last merge.
+     * 
+     * @return A map associating each merged entity to the IRI of the
+     *         representative of its clique.
+     */
+    public Map<OWLEntity, IRI> getRenamings() {
+        return renamings;
+    }
+
     /**
      * Merge inferred equivalent classes in an ontology.
      * 
@@ -129,199 +217,444 @@ public class EquivalenceSetMerger {
      * @throws ReasoningException If the ontology is inconsistent.
      */
     public void merge(OWLOntology ontology, OWLReasoner reasoner) throws ReasoningException {
-        Set<Node<? extends OWLEntity>> nodes = new HashSet<Node<? extends OWLEntity>>();
-        Map<OWLEntity, Node<? extends OWLEntity>> nodeByRep = new HashMap<OWLEntity, Node<? extends OWLEntity>>();
-        Set<OWLClass> badClasses = new HashSet<OWLClass>();
+        mergeCliques(ontology, findCliques(ontology, reasoner));
+    }
+
+    /**
+     * Merge inferred equivalent classes in an ontology, creating a reasoner only
+     * if needed.
+     * <p>
+     * If a cache file has been set (with {@link #setCacheFile(File)}) and
+     * contains the cliques previously found for the same logical axioms, those
+     * cliques are merged directly without creating a reasoner. Otherwise, a
+     * reasoner is created to find the cliques, which are then written to the
+     * cache file, if any.
+     * 
+     * @param ontology        The ontology whose equivalent classes should be
+     *                        merged.
+     * @param reasonerFactory The factory to use to create a reasoner if needed.
+     * @throws ReasoningException If the ontology is inconsistent.
+     */
+    public void merge(OWLOntology ontology, OWLReasonerFactory reasonerFactory) throws ReasoningException {
+        if ( cacheFile == null ) {
+            OWLReasoner reasoner = reasonerFactory.createReasoner(ontology);
+            try {
+                merge(ontology, reasoner);
+            } finally {
+                reasoner.dispose();
+            }
+            return;
+        }
 
+        CliqueCache cache = new CliqueCache(cacheFile);
+        String key = cache.computeKey(ontology,
+                String.format("%s:%s", reasonerFactory.getClass().getName(), mergeIndividuals));
+        List<Set<? extends OWLEntity>> cliques = cache.load(ontology, key);
+        if ( cliques != null ) {
+            logger.info("Using {} cliques from cache {}", cliques.size(), cacheFile);
+            mergeCliques(ontology, cliques);
+        } else {
+            OWLReasoner reasoner = reasonerFactory.createReasoner(ontology);
+            try {
+                cliques = findCliques(ontology, reasoner);
+            } finally {
+                reasoner.dispose();
+            }
+            mergeCliques(ontology, cliques);
+            cache.save(key, cliques, renamings);
+        }
+    }
+
+    /**
+     * Merge asserted equivalent classes in an ontology, without a reasoner.
+     * <p>
+     * Only equivalences that are explicitly asserted between named classes
+     * (directly, or through a chain of EquivalentClasses axioms) are considered;
+     * equivalences that could only be inferred by a reasoner are ignored, and so
+     * are cross-references, unless they have been turned into EquivalentClasses
+     * axioms (as in bridge files). If the merging of individuals is enabled,
+     * asserted SameIndividual axioms are likewise used to find identical
+     * individuals.
+     * 
+     * @param ontology The ontology whose equivalent classes should be merged.
+     * @throws ReasoningException If some classes with a preserved prefix would
+     *                            be merged.
+     */
+    public void merge(OWLOntology ontology) throws ReasoningException {
+        List<Set<OWLEntity>> groups = new ArrayList<Set<OWLEntity>>();
+        for ( OWLEquivalentClassesAxiom ax : ontology.getAxioms(AxiomType.EQUIVALENT_CLASSES, Imports.INCLUDED) ) {
+            groups.add(new HashSet<OWLEntity>(ax.getNamedClasses()));
+        }
+        if ( mergeIndividuals ) {
+            for ( OWLSameIndividualAxiom ax : ontology.getAxioms(AxiomType.SAME_INDIVIDUAL, Imports.INCLUDED) ) {
+                groups.add(new HashSet<OWLEntity>(ax.getIndividualsInSignature()));
+            }
+        }
+
+        mergeCliques(ontology, findAssertedCliques(ontology, groups));
+    }
+
+    /*
+     * Merges the given sets of equivalent entities.
+     */
+    private void mergeCliques(OWLOntology ontology, List<Set<? extends OWLEntity>> cliques)
+            throws ReasoningException {
+        Set<OWLClass> badClasses = new LinkedHashSet<OWLClass>();
         OWLDataFactory factory = ontology.getOWLOntologyManager().getOWLDataFactory();
+        Map<OWLEntity, IRI> e2iri = new HashMap<OWLEntity, IRI>();
+        Set<OWLAxiom> newAxiomsNoRewrite = new HashSet<OWLAxiom>();
+        Set<OWLAxiom> rmAnnotations = new HashSet<OWLAxiom>();
 
-        Set<OWLClass> unsats = reasoner.getUnsatisfiableClasses().getEntitiesMinusBottom();
-        if ( unsats.size() > 0 ) {
-            throw new ReasoningException("Ontology contains unsatisfiable classes", unsats);
+        // Decide what to do with each clique
+        List<CliquePlan> plans = new ArrayList<CliquePlan>(Collections.nCopies(cliques.size(), null));
+        if ( threads > 1 ) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.submit(() -> IntStream.range(0, cliques.size()).parallel()
+                        .forEach(i -> plans.set(i, planClique(ontology, cliques.get(i))))).join();
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            for ( int i = 0; i < cliques.size(); i++ ) {
+                plans.set(i, planClique(ontology, cliques.get(i)));
+            }
         }
 
-        // Find sets of equivalent classes/individuals ("cliques")
-        for ( OWLClass c : ontology.getClassesInSignature() ) {
-            Node<OWLClass> n = reasoner.getEquivalentClasses(c);
-            if ( n.getSize() > 1 ) {
-                nodes.add(n);
-                nodeByRep.put(c, n);
+        // Collect all the decisions, in the order of the cliques
+        for ( CliquePlan plan : plans ) {
+            e2iri.putAll(plan.renamings);
+            badClasses.addAll(plan.badClasses);
+            newAxiomsNoRewrite.addAll(plan.xrefs);
+            rmAnnotations.addAll(plan.removals);
+        }
+
+        if ( !badClasses.isEmpty() ) {
+            throw new ReasoningException("Some preserved classes would be merged", badClasses);
+        }
+
+        // Remove the annotations from the non-representative nodes
+        if ( !rmAnnotations.isEmpty() ) {
+            ontology.getOWLOntologyManager().removeAxioms(ontology, rmAnnotations);
+        }
+
+        // Replace the IRIs of merged nodes with their representative IRI.
+        renamings = e2iri;
+        if ( !deferRenaming ) {
+            OWLEntityRenamer oer = new OWLEntityRenamer(ontology.getOWLOntologyManager(),
+                    ontology.getOWLOntologyManager().getOntologies());
+            List<OWLOntologyChange> changes = oer.changeIRI(e2iri);
+            ontology.getOWLOntologyManager().applyChanges(changes);
+        }
+
+        // Add the cross-reference axioms
+        ontology.getOWLOntologyManager().addAxioms(ontology, newAxiomsNoRewrite);
+
+        // Cleaning up. Reflexive SubClassOf axioms and unary EquivalentClasses
+        // axioms (A=A) may happen as a result of the merge, but may also have been
+        // there already on any class, so we look at all of them; this only involves
+        // the axioms of those two types, which the ontology indexes by type. If
+        // renaming is deferred, the axioms made trivial by the renaming are left to
+        // whoever does the renaming.
+        Set<OWLAxiom> reflexiveAxioms = new HashSet<OWLAxiom>();
+        for ( OWLSubClassOfAxiom a : ontology.getAxioms(AxiomType.SUBCLASS_OF) ) {
+            if ( a.getSubClass().equals(a.getSuperClass()) ) {
+                reflexiveAxioms.add(a);
             }
         }
-        for ( OWLNamedIndividual i : ontology.getIndividualsInSignature() ) {
-            Node<OWLNamedIndividual> n = reasoner.getSameIndividuals(i);
-            if ( n.getSize() > 1 ) {
-                nodes.add(n);
-                nodeByRep.put(i, n);
+        Set<OWLAxiom> unaryAxioms = new HashSet<OWLAxiom>();
+        for ( OWLEquivalentClassesAxiom a : ontology.getAxioms(AxiomType.EQUIVALENT_CLASSES) ) {
+            if ( a.getClassExpressions().size() < 2 ) {
+                unaryAxioms.add(a);
+            }
+        }
+
+        // Removing oboInOwl#id annotations.
+        Set<OWLAxiom> idAxioms = new HashSet<OWLAxiom>();
+        OWLAnnotationProperty idProperty = factory.getOWLAnnotationProperty(OBO_ID);
+        for ( OWLAxiom a : ontology.getReferencingAxioms(idProperty) ) {
+            if ( a.isOfType(AxiomType.ANNOTATION_ASSERTION)
+                    && ((OWLAnnotationAssertionAxiom) a).getProperty().equals(idProperty) ) {
+                idAxioms.add(a);
             }
         }
 
+        Set<OWLAxiom> rmAxioms = new HashSet<OWLAxiom>();
+        rmAxioms.addAll(reflexiveAxioms);
+        rmAxioms.addAll(unaryAxioms);
+        rmAxioms.addAll(idAxioms);
+        if ( rmAxioms.size() > 0 ) {
+            logger.info("Removing {} reflexive SubClassOf axioms, {} unary EquivalentClasses axioms, {} ID annotations",
+                    reflexiveAxioms.size(), unaryAxioms.size(), idAxioms.size());
+            ontology.getOWLOntologyManager().removeAxioms(ontology, rmAxioms);
+        }
+    }
+
+    /*
+     * Decides how a single clique should be merged, without modifying the
+     * ontology. This may be called concurrently for several cliques.
+     */
+    private CliquePlan planClique(OWLOntology ontology, Set<? extends OWLEntity> clique) {
+        OWLDataFactory factory = ontology.getOWLOntologyManager().getOWLDataFactory();
         OWLAnnotationProperty xrefProperty = factory
                 .getOWLAnnotationProperty(Obo2OWLVocabulary.IRI_OIO_hasDbXref.getIRI());
-        Map<OWLEntity, IRI> e2iri = new HashMap<OWLEntity, IRI>();
-        Set<OWLEntity> seenClasses = new HashSet<OWLEntity>();
-        Set<OWLAxiom> newAxiomsNoRewrite = new HashSet<OWLAxiom>();
+        CliquePlan plan = new CliquePlan();
 
-        // Process each clique
-        for ( Node<? extends OWLEntity> n : nodes ) {
-            boolean isSeen = false;
-            for ( OWLEntity c : n.getEntities() ) {
-                if ( seenClasses.contains(c) ) {
-                    isSeen = true;
-                    break;
-                }
-                seenClasses.add(c);
+        // Find representative node ("clique leader") according to IRI priority scores
+        OWLEntity cliqueLeader = null;
+        Double best = null;
+        for ( OWLEntity c : clique ) {
+            Double score = prefixScores.getScore(c.getIRI().toString());
+            if ( best == null || (score != null && score > best) ) {
+                cliqueLeader = c;
+                best = score;
             }
-            if ( isSeen ) {
+        }
+
+        for ( OWLEntity c : clique ) {
+            if ( c.equals(cliqueLeader) ) {
                 continue;
             }
 
-            // Find representative node ("clique leader") according to IRI priority scores
-            OWLEntity cliqueLeader = null;
-            Double best = null;
-            for ( OWLEntity c : n.getEntities() ) {
-                Double score = getScore(c, prefixScoreMap);
-                if ( best == null || (score != null && score > best) ) {
-                    cliqueLeader = c;
-                    best = score;
-                }
-            }
+            // Replace node IRI with the representative IRI
+            plan.renamings.put(c, cliqueLeader.getIRI());
 
-            for ( OWLEntity c : n.getEntities() ) {
-                if ( c.equals(cliqueLeader) ) {
-                    continue;
+            // Check we are not merging a node from a "preserved" prefix (any preserved
+            // prefix shared by the node and the leader, not only the longest one)
+            Set<String> preserved = preservedPrefixes.getMatchingPrefixes(c.getIRI().toString());
+            if ( !preserved.isEmpty() ) {
+                preserved.retainAll(preservedPrefixes.getMatchingPrefixes(cliqueLeader.getIRI().toString()));
+                if ( !preserved.isEmpty() ) {
+                    plan.badClasses.add(c.asOWLClass());
                 }
+            }
 
-                // Replace node IRI with the representative IRI
-                e2iri.put(c, cliqueLeader.getIRI());
+            // Add cross-reference to the clique leader
+            if ( addEquivalenceAxioms ) {
+                OWLAxiom eca = null;
+                OWLAnnotationValue value = factory.getOWLLiteral(OWLAPIOwl2Obo.getIdentifier(c.getIRI()));
+                eca = factory.getOWLAnnotationAssertionAxiom(xrefProperty, cliqueLeader.getIRI(), value);
+                plan.xrefs.add(eca);
+            }
+        }
 
-                // Check we are not merging a node from a "preserved" prefix
-                for ( String p : noMergePrefixes ) {
-                    if ( hasPrefix(c, p) && hasPrefix(cliqueLeader, p) ) {
-                        badClasses.add(c.asOWLClass());
-                    }
-                }
+        if ( propertyPrefixScores.isEmpty() ) {
+            return plan;
+        }
 
-                // Add cross-reference to the clique leader
-                if ( addEquivalenceAxioms ) {
-                    OWLAxiom eca = null;
-                    OWLAnnotationValue value = factory.getOWLLiteral(OWLAPIOwl2Obo.getIdentifier(c.getIRI()));
-                    eca = factory.getOWLAnnotationAssertionAxiom(xrefProperty, cliqueLeader.getIRI(), value);
-                    newAxiomsNoRewrite.add(eca);
+        // Load the annotation assertions of all the nodes in the clique, for all the
+        // properties for which we have set priorities.
+        Map<OWLEntity, Map<OWLAnnotationProperty, List<OWLAnnotationAssertionAxiom>>> annotations = new HashMap<OWLEntity, Map<OWLAnnotationProperty, List<OWLAnnotationAssertionAxiom>>>();
+        for ( OWLEntity c : clique ) {
+            Map<OWLAnnotationProperty, List<OWLAnnotationAssertionAxiom>> byProperty = new HashMap<OWLAnnotationProperty, List<OWLAnnotationAssertionAxiom>>();
+            for ( OWLAnnotationAssertionAxiom ax : ontology.getAnnotationAssertionAxioms(c.getIRI()) ) {
+                if ( propertyPrefixScores.containsKey(ax.getProperty()) ) {
+                    byProperty.computeIfAbsent(ax.getProperty(),
+                            k -> new ArrayList<OWLAnnotationAssertionAxiom>()).add(ax);
                 }
             }
+            annotations.put(c, byProperty);
+        }
 
-            // For all properties for which we have set priorities, we remove the
-            // corresponding annotation assertions unless they come from the ontology with
-            // the highest priority.
-            for ( OWLAnnotationProperty p : propertyPrefixScoreMap.keySet() ) {
-                Map<String, Double> pmap = propertyPrefixScoreMap.get(p);
-
-                // Find the representative node for this property. We do that on a per-clique
-                // basis instead of once and for all because not all nodes in a clique may have
-                // an annotation with the property, so the representative node for one clique
-                // may come from a different ontology than the representative node for another
-                // clique.
-                OWLEntity representativeForProp = null;
-                Double bestForProp = null;
-                for ( OWLEntity c : n.getEntities() ) {
-                    String v = getAnnotationValue(ontology, p, c);
-                    if ( v == null || v.equals("") ) {
-                        continue;
-                    }
-                    Double score = getScore(c, pmap);
-                    if ( bestForProp == null || (score != null && score > bestForProp) ) {
-                        representativeForProp = c;
-                        bestForProp = score;
-                    }
+        // For all properties for which we have set priorities, we remove the
+        // corresponding annotation assertions unless they come from the ontology with
+        // the highest priority.
+        for ( OWLAnnotationProperty p : propertyPrefixScores.keySet() ) {
+            PrefixMatcher pmap = propertyPrefixScores.get(p);
+
+            // Find the representative node for this property. We do that on a per-clique
+            // basis instead of once and for all because not all nodes in a clique may have
+            // an annotation with the property, so the representative node for one clique
+            // may come from a different ontology than the representative node for another
+            // clique.
+            OWLEntity representativeForProp = null;
+            Double bestForProp = null;
+            for ( OWLEntity c : clique ) {
+                String v = getAnnotationValue(annotations.get(c).get(p));
+                if ( v == null || v.equals("") ) {
+                    continue;
+                }
+                Double score = pmap.getScore(c.getIRI().toString());
+                if ( bestForProp == null || (score != null && score > bestForProp) ) {
+                    representativeForProp = c;
+                    bestForProp = score;
                 }
+            }
 
-                // Iterate again through the node, this time to remove the annotation assertions
-                // except on the representative node.
-                for ( OWLEntity c : n.getEntities() ) {
-                    if ( c.equals(representativeForProp) ) {
-                        continue;
-                    }
-                    Set<OWLAxiom> rmAxioms = new HashSet<OWLAxiom>();
-                    for ( OWLAnnotationAssertionAxiom ax : ontology.getAnnotationAssertionAxioms(c.getIRI()) ) {
-                        if ( ax.getProperty().equals(p) ) {
-                            rmAxioms.add(ax);
-                        }
-                    }
-                    ontology.getOWLOntologyManager().removeAxioms(ontology, rmAxioms);
+            // Iterate again through the node, this time to collect the annotation
+            // assertions to remove, except on the representative node.
+            for ( OWLEntity c : clique ) {
+                List<OWLAnnotationAssertionAxiom> axioms = annotations.get(c).get(p);
+                if ( !c.equals(representativeForProp) && axioms != null ) {
+                    plan.removals.addAll(axioms);
                 }
             }
         }
 
-        if ( !badClasses.isEmpty() ) {
-            throw new ReasoningException("Some preserved classes would be merged", badClasses);
+        return plan;
+    }
+
+    /*
+     * Finds the sets of equivalent classes/individuals ("cliques") using the
+     * reasoner.
+     */
+    private List<Set<? extends OWLEntity>> findCliques(OWLOntology ontology, OWLReasoner reasoner)
+            throws ReasoningException {
+        Set<OWLClass> unsats = reasoner.getUnsatisfiableClasses().getEntitiesMinusBottom();
+        if ( unsats.size() > 0 ) {
+            throw new ReasoningException("Ontology contains unsatisfiable classes", unsats);
         }
 
-        // Replace the IRIs of merged nodes with their representative IRI.
-        OWLEntityRenamer oer = new OWLEntityRenamer(ontology.getOWLOntologyManager(),
-                ontology.getOWLOntologyManager().getOntologies());
-        List<OWLOntologyChange> changes = oer.changeIRI(e2iri);
-        ontology.getOWLOntologyManager().applyChanges(changes);
+        List<Set<? extends OWLEntity>> cliques = findClassCliques(ontology, reasoner);
+        if ( mergeIndividuals ) {
+            cliques.addAll(findIndividualCliques(ontology, reasoner));
+        }
+        return cliques;
+    }
 
-        // Add the cross-reference axioms
-        ontology.getOWLOntologyManager().addAxioms(ontology, newAxiomsNoRewrite);
+    /*
+     * Finds all the sets of equivalent classes, in a single walk down the
+     * reasoner's class hierarchy. Each node is visited only once, and only nodes
+     * with at least one class from the ontology's signature are kept.
+     */
+    private List<Set<? extends OWLEntity>> findClassCliques(OWLOntology ontology, OWLReasoner reasoner) {
+        List<Set<? extends OWLEntity>> cliques = new ArrayList<Set<? extends OWLEntity>>();
+        Set<Node<OWLClass>> visited = new HashSet<Node<OWLClass>>();
+        Deque<Node<OWLClass>> queue = new ArrayDeque<Node<OWLClass>>();
 
-        // Cleaning up
-        Set<OWLAxiom> rmAxioms = new HashSet<OWLAxiom>();
-        for ( OWLSubClassOfAxiom a : ontology.getAxioms(AxiomType.SUBCLASS_OF) ) {
-            // Removing reflexive assertions
-            if ( a.getSubClass().equals(a.getSuperClass()) ) {
-                rmAxioms.add(a);
+        Node<OWLClass> top = reasoner.getTopClassNode();
+        visited.add(top);
+        queue.add(top);
+        while ( !queue.isEmpty() ) {
+            Node<OWLClass> n = queue.remove();
+            if ( n.isBottomNode() ) {
+                continue;
+            }
+
+            if ( n.getSize() > 1 ) {
+                for ( OWLClass c : n.getEntities() ) {
+                    if ( ontology.containsClassInSignature(c.getIRI(), Imports.EXCLUDED) ) {
+                        cliques.add(n.getEntities());
+                        break;
+                    }
+                }
+            }
+
+            for ( Node<OWLClass> sub : reasoner.getSubClasses(n.getRepresentativeElement(), true) ) {
+                if ( visited.add(sub) ) {
+                    queue.add(sub);
+                }
             }
         }
-        for ( OWLEquivalentClassesAxiom a : ontology.getAxioms(AxiomType.EQUIVALENT_CLASSES) ) {
-            // Removing unary equivalent class expressions (A=A), which may happen as a
-            // result of the merge
-            if ( a.getClassExpressions().size() < 2 ) {
-                rmAxioms.add(a);
+
+        return cliques;
+    }
+
+    /*
+     * Finds the sets of entities that are connected by the given groups of
+     * asserted equivalences, using a union-find structure over integer indexes.
+     * As for the reasoner-based search, only sets with at least one entity from
+     * the ontology's signature are kept. The members of each set are sorted by
+     * IRI (then by type, so that punned entities are kept apart), and the sets
+     * are sorted by their first member, so that the result does not depend on
+     * the order of the axioms.
+     */
+    private List<Set<? extends OWLEntity>> findAssertedCliques(OWLOntology ontology, List<Set<OWLEntity>> groups) {
+        Map<OWLEntity, Integer> index = new HashMap<OWLEntity, Integer>();
+        List<OWLEntity> entities = new ArrayList<OWLEntity>();
+        for ( Set<OWLEntity> group : groups ) {
+            if ( group.size() > 1 ) {
+                for ( OWLEntity e : group ) {
+                    if ( !index.containsKey(e) ) {
+                        index.put(e, entities.size());
+                        entities.add(e);
+                    }
+                }
             }
         }
-        for ( OWLAnnotationAssertionAxiom a : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION) ) {
-            // Removing oboInOwl#id annotations.
-            if ( a.getProperty().getIRI().equals(IRI.create("http://www.geneontology.org/formats/oboInOwl#id")) ) {
-                rmAxioms.add(a);
+
+        int[] parent = new int[entities.size()];
+        for ( int i = 0; i < parent.length; i++ ) {
+            parent[i] = i;
+        }
+        for ( Set<OWLEntity> group : groups ) {
+            if ( group.size() > 1 ) {
+                int root = -1;
+                for ( OWLEntity e : group ) {
+                    int r = find(parent, index.get(e));
+                    if ( root == -1 ) {
+                        root = r;
+                    } else if ( r != root ) {
+                        parent[r] = root;
+                    }
+                }
             }
         }
-        if ( rmAxioms.size() > 0 ) {
-            System.err.printf("Removing %d axioms\n", rmAxioms.size());
-            ontology.getOWLOntologyManager().removeAxioms(ontology, rmAxioms);
+
+        Map<Integer, TreeSet<OWLEntity>> sets = new HashMap<Integer, TreeSet<OWLEntity>>();
+        for ( int i = 0; i < parent.length; i++ ) {
+            sets.computeIfAbsent(find(parent, i), k -> new TreeSet<OWLEntity>(ENTITY_ORDER)).add(entities.get(i));
         }
-    }
 
-    private String getAnnotationValue(OWLOntology o, OWLAnnotationProperty p, OWLEntity e) {
-        for ( OWLAnnotationAssertionAxiom ax : o.getAnnotationAssertionAxioms(e.getIRI()) ) {
-            if ( ax.getProperty().equals(p) ) {
-                return ax.getValue().asLiteral().toString();
+        List<TreeSet<OWLEntity>> sorted = new ArrayList<TreeSet<OWLEntity>>();
+        for ( TreeSet<OWLEntity> set : sets.values() ) {
+            for ( OWLEntity e : set ) {
+                if ( ontology.containsEntityInSignature(e, Imports.EXCLUDED) ) {
+                    sorted.add(set);
+                    break;
+                }
             }
         }
-        return null;
+        sorted.sort((s1, s2) -> ENTITY_ORDER.compare(s1.first(), s2.first()));
+        return new ArrayList<Set<? extends OWLEntity>>(sorted);
     }
 
-    private Double getScore(OWLEntity c, Map<String, Double> pmap) {
-        for ( String p : pmap.keySet() ) {
-            if ( hasPrefix(c, p) ) {
-                return pmap.get(p);
+    /*
+     * Finds the root of an element in a union-find structure, compressing the
+     * path along the way.
+     */
+    private int find(int[] parent, int i) {
+        while ( parent[i] != i ) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /*
+     * Finds all the sets of identical individuals. This requires the ontology to
+     * be realised.
+     */
+    private List<Set<? extends OWLEntity>> findIndividualCliques(OWLOntology ontology, OWLReasoner reasoner) {
+        List<Set<? extends OWLEntity>> cliques = new ArrayList<Set<? extends OWLEntity>>();
+        Set<OWLNamedIndividual> seen = new HashSet<OWLNamedIndividual>();
+        for ( OWLNamedIndividual i : ontology.getIndividualsInSignature() ) {
+            if ( seen.contains(i) ) {
+                continue;
+            }
+            Node<OWLNamedIndividual> n = reasoner.getSameIndividuals(i);
+            seen.addAll(n.getEntities());
+            if ( n.getSize() > 1 ) {
+                cliques.add(n.getEntities());
             }
         }
+        return cliques;
+    }
 
+    private String getAnnotationValue(List<OWLAnnotationAssertionAxiom> axioms) {
+        if ( axioms != null && !axioms.isEmpty() ) {
+            return axioms.get(0).getValue().asLiteral().toString();
+        }
         return null;
     }
 
-    private boolean hasPrefix(OWLEntity c, String p) {
-        if ( p.startsWith("http") ) {
-            return c.getIRI().toString().startsWith(p);
-        }
-        if ( c.getIRI().toString().contains("/" + p) ) {
-            return true;
-        }
-        if ( c.getIRI().toString().contains("#" + p) ) {
-            return true;
-        }
-        return false;
+    /*
+     * What should be done to merge a single clique.
+     */
+    private static class CliquePlan {
+        Map<OWLEntity, IRI> renamings = new HashMap<OWLEntity, IRI>();
+        List<OWLClass> badClasses = new ArrayList<OWLClass>();
+        List<OWLAxiom> xrefs = new ArrayList<OWLAxiom>();
+        List<OWLAxiom> removals = new ArrayList<OWLAxiom>();
     }
 }
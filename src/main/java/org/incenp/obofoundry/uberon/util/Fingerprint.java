@@ -0,0 +1,266 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLCardinalityRestriction;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataOneOf;
+import org.semanticweb.owlapi.model.OWLDataRange;
+import org.semanticweb.owlapi.model.OWLDatatypeRestriction;
+import org.semanticweb.owlapi.model.OWLDisjointUnionAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLFacetRestriction;
+import org.semanticweb.owlapi.model.OWLHasKeyAxiom;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLNaryBooleanClassExpression;
+import org.semanticweb.owlapi.model.OWLNaryClassAxiom;
+import org.semanticweb.owlapi.model.OWLNaryDataRange;
+import org.semanticweb.owlapi.model.OWLNaryIndividualAxiom;
+import org.semanticweb.owlapi.model.OWLNaryPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectInverseOf;
+import org.semanticweb.owlapi.model.OWLObjectOneOf;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+import org.semanticweb.owlapi.model.SWRLBuiltInAtom;
+import org.semanticweb.owlapi.model.SWRLRule;
+import org.semanticweb.owlapi.model.SWRLVariable;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.util.OWLObjectVisitorAdapter;
+import org.semanticweb.owlapi.util.OWLObjectWalker;
+import org.semanticweb.owlapi.util.StructureWalker;
+
+/**
+ * Helper methods to compute 64-bit fingerprints of OWL objects.
+ * <p>
+ * The fingerprint of an object is computed by walking its structure (including
+ * any annotation) and hashing, for each node, its type, the number of its
+ * operands, and its own content (full IRIs of entities, lexical value of
+ * literals, cardinalities, etc.). It does not depend on how the object would
+ * be rendered, so two equal objects always have the same fingerprint, even if
+ * they belong to ontologies managed by different managers; two different
+ * objects may in theory also have the same fingerprint, but this is unlikely
+ * enough to be ignored for diffing purposes.
+ */
+public class Fingerprint {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Fingerprint() {
+    }
+
+    /**
+     * Computes the fingerprint of an OWL object.
+     * 
+     * @param object The object to fingerprint (typically an axiom).
+     * @return The 64-bit fingerprint.
+     */
+    public static long of(OWLObject object) {
+        OWLObjectWalker<OWLObject> walker = new OWLObjectWalker<>(Collections.singletonList(object), true,
+                StructureWalker.AnnotationWalkingControl.WALK_ANNOTATIONS);
+        Hasher hasher = new Hasher(walker);
+        walker.setStructureWalker(hasher);
+        walker.walkStructure(new OWLObjectVisitorAdapter());
+        return hasher.hash;
+    }
+
+    /**
+     * Computes a fingerprint of the logical content of an ontology (including
+     * its imports). The fingerprint is made of the number of logical axioms and
+     * of the sum of their individual fingerprints, so it does not depend on the
+     * order in which the axioms are stored.
+     * 
+     * @param ontology The ontology to fingerprint.
+     * @return A string representation of the fingerprint.
+     */
+    public static String of(OWLOntology ontology) {
+        long hash = 0;
+        long count = 0;
+        for ( OWLAxiom ax : ontology.getLogicalAxioms(Imports.INCLUDED) ) {
+            hash += of(ax);
+            count += 1;
+        }
+        return String.format("%d:%016x", count, hash);
+    }
+
+    /**
+     * Computes the 64-bit FNV-1a hash of a string.
+     * 
+     * @param s The string to hash.
+     * @return The 64-bit hash.
+     */
+    public static long of(String s) {
+        return update(FNV_OFFSET, s);
+    }
+
+    /*
+     * Feeds the characters of a string into a running FNV-1a hash.
+     */
+    private static long update(long hash, String s) {
+        for ( int i = 0, len = s.length(); i < len; i++ ) {
+            hash ^= s.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /*
+     * Structure walker that, instead of passing each visited object to a
+     * visitor, folds it into a running hash. The walker visits objects in
+     * pre-order; hashing the number of operands of every variable-arity node
+     * ensures that two different trees cannot produce the same sequence.
+     */
+    private static class Hasher extends StructureWalker<OWLObject> {
+
+        private long hash = FNV_OFFSET;
+
+        Hasher(OWLObjectWalker<OWLObject> walker) {
+            super(walker, AnnotationWalkingControl.WALK_ANNOTATIONS);
+        }
+
+        @Override
+        protected void process(OWLObject object) {
+            if ( object instanceof OWLAxiom ) {
+                OWLAxiom axiom = (OWLAxiom) object;
+                mix(1, axiom.getAxiomType().getIndex());
+                mix(axiom.getAnnotations().size());
+                walkAnnotations(axiom.getAnnotations());
+            } else if ( object instanceof OWLEntity ) {
+                mix(2, ((OWLEntity) object).getEntityType().getName().hashCode());
+                mix(((OWLEntity) object).getIRI());
+            } else if ( object instanceof OWLClassExpression ) {
+                mix(3, ((OWLClassExpression) object).getClassExpressionType().ordinal());
+            } else if ( object instanceof OWLDataRange ) {
+                mix(4, ((OWLDataRange) object).getDataRangeType().ordinal());
+            } else if ( object instanceof IRI ) {
+                mix(5, 0);
+                mix((IRI) object);
+            } else if ( object instanceof OWLLiteral ) {
+                OWLLiteral literal = (OWLLiteral) object;
+                mix(6, 0);
+                mix(literal.getLiteral());
+                mix(literal.getLang());
+                mix(literal.getDatatype().getIRI());
+            } else if ( object instanceof OWLAnonymousIndividual ) {
+                mix(7, 0);
+                mix(((OWLAnonymousIndividual) object).getID().getID());
+            } else if ( object instanceof OWLAnnotation ) {
+                mix(8, ((OWLAnnotation) object).getAnnotations().size());
+                walkAnnotations(((OWLAnnotation) object).getAnnotations());
+            } else if ( object instanceof OWLObjectInverseOf ) {
+                mix(9, 0);
+            } else if ( object instanceof OWLFacetRestriction ) {
+                mix(10, ((OWLFacetRestriction) object).getFacet().ordinal());
+            } else if ( object instanceof SWRLVariable ) {
+                mix(11, 0);
+                mix(((SWRLVariable) object).getIRI());
+            } else {
+                mix(12, object.getClass().getSimpleName().hashCode());
+            }
+
+            if ( object instanceof OWLCardinalityRestriction ) {
+                mix(((OWLCardinalityRestriction<?>) object).getCardinality());
+            } else if ( object instanceof OWLNaryBooleanClassExpression ) {
+                mix(((OWLNaryBooleanClassExpression) object).getOperands().size());
+            } else if ( object instanceof OWLObjectOneOf ) {
+                mix(((OWLObjectOneOf) object).getIndividuals().size());
+            } else if ( object instanceof OWLDataOneOf ) {
+                mix(((OWLDataOneOf) object).getValues().size());
+            } else if ( object instanceof OWLNaryDataRange ) {
+                mix(((OWLNaryDataRange) object).getOperands().size());
+            } else if ( object instanceof OWLDatatypeRestriction ) {
+                mix(((OWLDatatypeRestriction) object).getFacetRestrictions().size());
+            } else if ( object instanceof OWLNaryClassAxiom ) {
+                mix(((OWLNaryClassAxiom) object).getClassExpressions().size());
+            } else if ( object instanceof OWLDisjointUnionAxiom ) {
+                mix(((OWLDisjointUnionAxiom) object).getClassExpressions().size());
+            } else if ( object instanceof OWLNaryIndividualAxiom ) {
+                mix(((OWLNaryIndividualAxiom) object).getIndividuals().size());
+            } else if ( object instanceof OWLNaryPropertyAxiom ) {
+                mix(((OWLNaryPropertyAxiom<?>) object).getProperties().size());
+            } else if ( object instanceof OWLHasKeyAxiom ) {
+                mix(((OWLHasKeyAxiom) object).getPropertyExpressions().size());
+            } else if ( object instanceof OWLSubPropertyChainOfAxiom ) {
+                mix(((OWLSubPropertyChainOfAxiom) object).getPropertyChain().size());
+            } else if ( object instanceof SWRLRule ) {
+                mix(((SWRLRule) object).getBody().size());
+                mix(((SWRLRule) object).getHead().size());
+            } else if ( object instanceof SWRLBuiltInAtom ) {
+                mix(((SWRLBuiltInAtom) object).getArguments().size());
+            }
+        }
+
+        /*
+         * The structure walker does not descend into the annotations of axioms
+         * and annotations, so we need to do it ourselves.
+         */
+        private void walkAnnotations(Set<OWLAnnotation> annotations) {
+            for ( OWLAnnotation annotation : annotations ) {
+                annotation.accept(this);
+            }
+        }
+
+        private void mix(int tag, int value) {
+            mix(((long) tag << 32) | (value & 0xffffffffL));
+        }
+
+        private void mix(long value) {
+            for ( int i = 0; i < 8; i++ ) {
+                hash ^= value & 0xff;
+                hash *= FNV_PRIME;
+                value >>>= 8;
+            }
+        }
+
+        private void mix(String s) {
+            // Hash the length first so that consecutive strings stay delimited
+            mix(s.length());
+            hash = update(hash, s);
+        }
+
+        private void mix(IRI iri) {
+            // Same as hashing the full IRI string, without building it
+            String namespace = iri.getNamespace();
+            String remainder = iri.getRemainder().or("");
+            mix(namespace.length() + remainder.length());
+            hash = update(update(hash, namespace), remainder);
+        }
+    }
+}
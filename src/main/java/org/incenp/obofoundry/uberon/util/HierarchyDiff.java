@@ -0,0 +1,174 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.semanticweb.owlapi.model.OWLClass;
+
+/**
+ * The differences between two inferred class hierarchies.
+ * <p>
+ * The direct (subclass, superclass) links of both hierarchies are encoded as
+ * sorted arrays of longs, using the same class indexes on both sides, so that
+ * the two arrays can be compared in a single linear pass. The links that are
+ * only present on one side are then grouped by superclass.
+ */
+public class HierarchyDiff {
+
+    private Map<OWLClass, List<OWLClass>> removed = new LinkedHashMap<OWLClass, List<OWLClass>>();
+    private Map<OWLClass, List<OWLClass>> added = new LinkedHashMap<OWLClass, List<OWLClass>>();
+    private Set<OWLClass> affected;
+
+    /**
+     * Computes the differences between two hierarchies.
+     * 
+     * @param base The base hierarchy.
+     * @param head The new hierarchy.
+     */
+    public HierarchyDiff(InferredHierarchy base, InferredHierarchy head) {
+        this(base, head, null);
+    }
+
+    /**
+     * Computes the differences between two hierarchies, only considering the
+     * subclasses of some classes. Links to the subclasses of other classes are
+     * excluded before the hierarchies are compared.
+     * 
+     * @param base   The base hierarchy.
+     * @param head   The new hierarchy.
+     * @param filter A predicate selecting the classes whose subclasses should be
+     *               compared; if {@code null}, all classes are considered.
+     */
+    public HierarchyDiff(InferredHierarchy base, InferredHierarchy head, Predicate<OWLClass> filter) {
+        List<OWLClass> classes = new ArrayList<OWLClass>();
+        Map<OWLClass, Integer> index = new HashMap<OWLClass, Integer>();
+        long[] baseEdges = base.getSortedEdges(remap(base, classes, index), select(base, filter));
+        long[] headEdges = head.getSortedEdges(remap(head, classes, index), select(head, filter));
+
+        int i = 0, j = 0;
+        while ( i < baseEdges.length || j < headEdges.length ) {
+            if ( j == headEdges.length || (i < baseEdges.length && baseEdges[i] < headEdges[j]) ) {
+                record(removed, baseEdges[i++], classes);
+            } else if ( i == baseEdges.length || headEdges[j] < baseEdges[i] ) {
+                record(added, headEdges[j++], classes);
+            } else {
+                i += 1;
+                j += 1;
+            }
+        }
+
+        affected = new LinkedHashSet<OWLClass>(removed.keySet());
+        affected.addAll(added.keySet());
+    }
+
+    /**
+     * Gets the classes whose direct subclasses differ between the two
+     * hierarchies.
+     * 
+     * @return The set of affected classes.
+     */
+    public Set<OWLClass> getAffectedClasses() {
+        return affected;
+    }
+
+    /**
+     * Gets the direct subclasses of a class in the base hierarchy that are no
+     * longer direct subclasses in the new hierarchy.
+     * 
+     * @param c The affected class.
+     * @return The removed direct subclasses.
+     */
+    public List<OWLClass> getRemovedSubClasses(OWLClass c) {
+        return removed.getOrDefault(c, Collections.emptyList());
+    }
+
+    /**
+     * Gets the direct subclasses of a class in the new hierarchy that were not
+     * direct subclasses in the base hierarchy.
+     * 
+     * @param c The affected class.
+     * @return The added direct subclasses.
+     */
+    public List<OWLClass> getAddedSubClasses(OWLClass c) {
+        return added.getOrDefault(c, Collections.emptyList());
+    }
+
+    /*
+     * Maps the indexes of a hierarchy to the shared indexes.
+     */
+    private static int[] remap(InferredHierarchy hierarchy, List<OWLClass> classes, Map<OWLClass, Integer> index) {
+        int[] remap = new int[hierarchy.size()];
+        for ( int i = 0; i < remap.length; i++ ) {
+            OWLClass c = hierarchy.getClass(i);
+            Integer k = index.get(c);
+            if ( k == null ) {
+                k = classes.size();
+                classes.add(c);
+                index.put(c, k);
+            }
+            remap[i] = k;
+        }
+        return remap;
+    }
+
+    /*
+     * Finds the classes of a hierarchy that are accepted by the filter.
+     */
+    private static boolean[] select(InferredHierarchy hierarchy, Predicate<OWLClass> filter) {
+        if ( filter == null ) {
+            return null;
+        }
+        boolean[] selected = new boolean[hierarchy.size()];
+        for ( int i = 0; i < selected.length; i++ ) {
+            selected[i] = filter.test(hierarchy.getClass(i));
+        }
+        return selected;
+    }
+
+    /*
+     * Records a link that is only present on one side.
+     */
+    private static void record(Map<OWLClass, List<OWLClass>> changes, long edge, List<OWLClass> classes) {
+        OWLClass parent = classes.get((int) (edge >>> 32));
+        OWLClass child = classes.get((int) edge);
+        changes.computeIfAbsent(parent, k -> new ArrayList<OWLClass>()).add(child);
+    }
+}
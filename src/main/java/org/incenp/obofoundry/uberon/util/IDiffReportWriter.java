@@ -0,0 +1,70 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+
+import org.semanticweb.owlapi.model.OWLClass;
+
+/**
+ * Represents a writer for the report produced by the inference-diff command.
+ * <p>
+ * A report is made of a header, followed by one section for each class whose
+ * inferred subclasses have changed. Sections are written as soon as they are
+ * available, so that the report never needs to be held entirely in memory.
+ */
+public interface IDiffReportWriter extends Closeable {
+
+    /**
+     * Writes the header of the report.
+     * 
+     * @param description A description of what the classes in the report are.
+     * @param count       The number of classes in the report.
+     * @throws IOException If an I/O error occurs.
+     */
+    public void writeHeader(String description, int count) throws IOException;
+
+    /**
+     * Writes the section of the report about a single class.
+     * 
+     * @param klass   The class.
+     * @param removed The subclasses of that class that are only found in the base
+     *                ontology.
+     * @param added   The subclasses of that class that are only found in the new
+     *                ontology.
+     * @throws IOException If an I/O error occurs.
+     */
+    public void writeClass(OWLClass klass, Collection<OWLClass> removed, Collection<OWLClass> added)
+            throws IOException;
+}
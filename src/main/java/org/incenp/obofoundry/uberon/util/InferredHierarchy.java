@@ -0,0 +1,416 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.reasoner.Node;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+/**
+ * An immutable snapshot of an inferred class hierarchy.
+ * <p>
+ * Each class in the snapshot is assigned an integer index, and the direct
+ * subclasses and superclasses of each class are stored as adjacency lists in
+ * compressed sparse row (CSR) form: the direct subclasses of the class with
+ * index {@code i} are the classes whose indexes are stored in
+ * {@code children[childOffsets[i]]} to {@code children[childOffsets[i+1]-1]},
+ * and likewise for the direct superclasses.
+ * <p>
+ * Equivalent classes are stored as distinct classes that have the same
+ * subclasses and superclasses. The bottom class ({@code owl:Nothing}) is never
+ * part of the snapshot, but unsatisfiable classes are, as direct subclasses of
+ * all the leaf classes.
+ * <p>
+ * Once created, a snapshot no longer depends on the reasoner it was built
+ * from, and may safely be queried from several threads. It may also be saved
+ * to a compact binary file, to be re-used later without having to classify the
+ * ontology again.
+ */
+public class InferredHierarchy {
+
+    private static final int MAGIC = 0x55424948;
+    private static final int VERSION = 1;
+
+    private final OWLClass[] classes;
+    private final Map<OWLClass, Integer> index;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] parentOffsets;
+    private final int[] parents;
+
+    /**
+     * Creates a new snapshot from its raw components.
+     * 
+     * @param classes      The classes, in index order.
+     * @param childOffsets The offsets of each class's subclasses in the
+     *                     {@code children} array ({@code classes.length + 1}
+     *                     values).
+     * @param children     The indexes of the direct subclasses of all classes.
+     * @param parentOffsets The offsets of each class's superclasses in the
+     *                      {@code parents} array.
+     * @param parents      The indexes of the direct superclasses of all classes.
+     */
+    InferredHierarchy(OWLClass[] classes, int[] childOffsets, int[] children, int[] parentOffsets,
+            int[] parents) {
+        this.classes = classes;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.parentOffsets = parentOffsets;
+        this.parents = parents;
+        index = new HashMap<OWLClass, Integer>();
+        for ( int i = 0; i < classes.length; i++ ) {
+            index.put(classes[i], i);
+        }
+    }
+
+    /**
+     * Creates a snapshot of the entire class hierarchy known to a reasoner.
+     * 
+     * @param reasoner The reasoner to query.
+     * @return The snapshot.
+     */
+    public static InferredHierarchy fromReasoner(OWLReasoner reasoner) {
+        return fromReasoner(reasoner, Collections.singleton(reasoner.getTopClassNode().getRepresentativeElement()));
+    }
+
+    /**
+     * Creates a snapshot of the part of the class hierarchy below the specified
+     * classes. The resulting snapshot contains the specified classes, their
+     * equivalent classes, and all their subclasses; superclasses are only
+     * recorded if they are themselves part of the snapshot.
+     * 
+     * @param reasoner The reasoner to query.
+     * @param roots    The classes whose subclasses should be recorded.
+     * @return The snapshot.
+     */
+    public static InferredHierarchy fromReasoner(OWLReasoner reasoner, Collection<OWLClass> roots) {
+        List<OWLClass> classes = new ArrayList<OWLClass>();
+        Map<OWLClass, Integer> index = new HashMap<OWLClass, Integer>();
+        List<int[]> edges = new ArrayList<int[]>();
+
+        Set<Node<OWLClass>> visited = new HashSet<Node<OWLClass>>();
+        Deque<Node<OWLClass>> queue = new ArrayDeque<Node<OWLClass>>();
+        for ( OWLClass root : roots ) {
+            Node<OWLClass> n = reasoner.getEquivalentClasses(root);
+            if ( !n.isBottomNode() && visited.add(n) ) {
+                queue.add(n);
+            }
+        }
+
+        while ( !queue.isEmpty() ) {
+            Node<OWLClass> n = queue.remove();
+            for ( Node<OWLClass> sub : reasoner.getSubClasses(n.getRepresentativeElement(), true) ) {
+                for ( OWLClass c : sub.getEntities() ) {
+                    if ( c.isOWLNothing() ) {
+                        continue;
+                    }
+                    for ( OWLClass p : n.getEntities() ) {
+                        edges.add(new int[] { intern(c, classes, index), intern(p, classes, index) });
+                    }
+                }
+                if ( !sub.isBottomNode() && visited.add(sub) ) {
+                    queue.add(sub);
+                }
+            }
+            for ( OWLClass c : n.getEntities() ) {
+                intern(c, classes, index);
+            }
+        }
+
+        return fromEdges(classes.toArray(new OWLClass[classes.size()]), edges);
+    }
+
+    /*
+     * Builds a snapshot from a list of (subclass, superclass) edges.
+     */
+    static InferredHierarchy fromEdges(OWLClass[] classes, List<int[]> edges) {
+        int n = classes.length;
+        int[] childOffsets = new int[n + 1];
+        for ( int[] edge : edges ) {
+            childOffsets[edge[1] + 1] += 1;
+        }
+        for ( int i = 0; i < n; i++ ) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+
+        int[] children = new int[edges.size()];
+        int[] fill = new int[n];
+        for ( int[] edge : edges ) {
+            children[childOffsets[edge[1]] + fill[edge[1]]++] = edge[0];
+        }
+
+        return fromChildren(classes, childOffsets, children);
+    }
+
+    /*
+     * Builds a snapshot from the subclass adjacency lists alone, by deriving the
+     * superclass adjacency lists from them.
+     */
+    private static InferredHierarchy fromChildren(OWLClass[] classes, int[] childOffsets, int[] children) {
+        int n = classes.length;
+        int[] parentOffsets = new int[n + 1];
+        for ( int child : children ) {
+            parentOffsets[child + 1] += 1;
+        }
+        for ( int i = 0; i < n; i++ ) {
+            parentOffsets[i + 1] += parentOffsets[i];
+        }
+
+        int[] parents = new int[children.length];
+        int[] fill = new int[n];
+        for ( int i = 0; i < n; i++ ) {
+            for ( int j = childOffsets[i]; j < childOffsets[i + 1]; j++ ) {
+                parents[parentOffsets[children[j]] + fill[children[j]]++] = i;
+            }
+        }
+
+        return new InferredHierarchy(classes, childOffsets, children, parentOffsets, parents);
+    }
+
+    /**
+     * Reads a snapshot previously written by {@link #write(File, String)}.
+     * 
+     * @param file    The file to read from.
+     * @param key     The key the snapshot is expected to have been written with.
+     * @param factory The data factory to use to create the classes.
+     * @return The snapshot, or {@code null} if the file contains a snapshot
+     *         written with a different key.
+     * @throws IOException If the file cannot be read or is not a snapshot file.
+     */
+    public static InferredHierarchy read(File file, String key, OWLDataFactory factory) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if ( in.readInt() != MAGIC || in.readInt() != VERSION ) {
+                throw new IOException(String.format("Not a hierarchy snapshot file: %s", file));
+            }
+            if ( !in.readUTF().equals(key) ) {
+                return null;
+            }
+
+            int n = in.readInt();
+            OWLClass[] classes = new OWLClass[n];
+            for ( int i = 0; i < n; i++ ) {
+                classes[i] = factory.getOWLClass(IRI.create(in.readUTF()));
+            }
+
+            int[] childOffsets = new int[n + 1];
+            for ( int i = 0; i <= n; i++ ) {
+                childOffsets[i] = in.readInt();
+            }
+            int[] children = new int[childOffsets[n]];
+            for ( int i = 0; i < children.length; i++ ) {
+                children[i] = in.readInt();
+            }
+
+            return fromChildren(classes, childOffsets, children);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Writes the snapshot to a file. Only the IRIs of the classes and the
+     * subclass adjacency lists are written; the superclass adjacency lists are
+     * re-computed when the snapshot is read back.
+     * 
+     * @param file The file to write to.
+     * @param key  An arbitrary string identifying the snapshot (typically a
+     *             fingerprint of the ontology it was built from).
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(File file, String key) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(key);
+            out.writeInt(classes.length);
+            for ( OWLClass c : classes ) {
+                out.writeUTF(c.getIRI().toString());
+            }
+            for ( int offset : childOffsets ) {
+                out.writeInt(offset);
+            }
+            for ( int child : children ) {
+                out.writeInt(child);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private static int intern(OWLClass c, List<OWLClass> classes, Map<OWLClass, Integer> index) {
+        Integer i = index.get(c);
+        if ( i == null ) {
+            i = classes.size();
+            classes.add(c);
+            index.put(c, i);
+        }
+        return i;
+    }
+
+    /**
+     * Gets the number of classes in the snapshot.
+     * 
+     * @return The number of classes.
+     */
+    public int size() {
+        return classes.length;
+    }
+
+    /**
+     * Gets the class with the specified index.
+     * 
+     * @param i The index of the class.
+     * @return The class.
+     */
+    OWLClass getClass(int i) {
+        return classes[i];
+    }
+
+    /**
+     * Gets the direct (subclass, superclass) links of the snapshot, as a sorted
+     * array of longs. Each link is encoded with the index of the superclass in
+     * the upper 32 bits and the index of the subclass in the lower 32 bits, so
+     * that the links are sorted by superclass first.
+     * 
+     * @param remap   An array mapping the indexes of this snapshot to the
+     *                indexes to use in the encoded links, so that links from
+     *                different snapshots may be compared.
+     * @param parents If not {@code null}, only the links whose superclass has
+     *                its (non-remapped) index set to {@code true} in this array
+     *                are included.
+     * @return The sorted array of encoded links.
+     */
+    long[] getSortedEdges(int[] remap, boolean[] parents) {
+        int count = 0;
+        for ( int i = 0; i < classes.length; i++ ) {
+            if ( parents == null || parents[i] ) {
+                count += childOffsets[i + 1] - childOffsets[i];
+            }
+        }
+
+        long[] edges = new long[count];
+        int k = 0;
+        for ( int i = 0; i < classes.length; i++ ) {
+            if ( parents == null || parents[i] ) {
+                for ( int j = childOffsets[i]; j < childOffsets[i + 1]; j++ ) {
+                    edges[k++] = ((long) remap[i] << 32) | remap[children[j]];
+                }
+            }
+        }
+        Arrays.sort(edges);
+        return edges;
+    }
+
+    /**
+     * Checks whether a class is part of the snapshot.
+     * 
+     * @param c The class to check.
+     * @return {@code true} if the snapshot contains the class.
+     */
+    public boolean contains(OWLClass c) {
+        return index.containsKey(c);
+    }
+
+    /**
+     * Gets all the subclasses (direct or indirect) of a class. Equivalent classes
+     * are not included.
+     * 
+     * @param c The class whose subclasses are requested.
+     * @return The set of all subclasses, which is empty if the class is not part
+     *         of the snapshot.
+     */
+    public Set<OWLClass> getSubClasses(OWLClass c) {
+        Set<OWLClass> result = new HashSet<OWLClass>();
+        Integer start = index.get(c);
+        if ( start == null ) {
+            return result;
+        }
+
+        boolean[] seen = new boolean[classes.length];
+        Deque<Integer> queue = new ArrayDeque<Integer>();
+        queue.add(start);
+        while ( !queue.isEmpty() ) {
+            int i = queue.remove();
+            for ( int j = childOffsets[i]; j < childOffsets[i + 1]; j++ ) {
+                int child = children[j];
+                if ( !seen[child] ) {
+                    seen[child] = true;
+                    result.add(classes[child]);
+                    queue.add(child);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the direct superclasses of a class.
+     * 
+     * @param c The class whose superclasses are requested.
+     * @return The set of direct superclasses, which is empty if the class is not
+     *         part of the snapshot.
+     */
+    public Set<OWLClass> getDirectSuperClasses(OWLClass c) {
+        Set<OWLClass> result = new HashSet<OWLClass>();
+        Integer i = index.get(c);
+        if ( i != null ) {
+            for ( int j = parentOffsets[i]; j < parentOffsets[i + 1]; j++ ) {
+                result.add(classes[parents[j]]);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes an inference-diff report in the JSON Lines format, with one JSON
+ * object for each class in the report.
+ */
+public class JSONDiffReportWriter extends AbstractDiffReportWriter {
+
+    private JsonWriter writer;
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param out        The writer to write the report to; it should be buffered.
+     * @param baseLabels The labels of the classes in the base ontology.
+     * @param headLabels The labels of the classes in the new ontology.
+     */
+    public JSONDiffReportWriter(Writer out, Map<IRI, String> baseLabels, Map<IRI, String> headLabels) {
+        super(out, baseLabels, headLabels);
+        writer = new JsonWriter(out);
+        // Lenient mode is needed to write several top-level values.
+        writer.setLenient(true);
+    }
+
+    @Override
+    public void writeHeader(String description, int count) throws IOException {
+        // No header, all lines are class records.
+    }
+
+    @Override
+    public void writeClass(OWLClass klass, Collection<OWLClass> removed, Collection<OWLClass> added)
+            throws IOException {
+        writer.beginObject();
+        writer.name("class").value(klass.getIRI().toString());
+        writer.name("label").value(getHeadLabel(klass));
+        writer.name("removed").beginArray();
+        for ( OWLClass subclass : removed ) {
+            writeClass(subclass, getBaseLabel(subclass));
+        }
+        writer.endArray();
+        writer.name("added").beginArray();
+        for ( OWLClass subclass : added ) {
+            writeClass(subclass, getHeadLabel(subclass));
+        }
+        writer.endArray();
+        writer.endObject();
+        out.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeClass(OWLClass c, String label) throws IOException {
+        writer.beginObject();
+        writer.name("class").value(c.getIRI().toString());
+        writer.name("label").value(label);
+        writer.endObject();
+    }
+}
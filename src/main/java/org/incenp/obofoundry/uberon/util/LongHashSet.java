@@ -0,0 +1,158 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+/**
+ * A set of primitive long values.
+ * <p>
+ * This is a simple open-addressing hash table with linear probing, intended to
+ * hold large numbers of fingerprints (see {@link Fingerprint}) with much less
+ * memory than a {@code Set<Long>} would require.
+ */
+public class LongHashSet {
+
+    private long[] table;
+    private int size;
+    private boolean hasZero;
+
+    /**
+     * Creates a new empty set.
+     */
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * Creates a new empty set with room for the specified number of values.
+     * 
+     * @param capacity The expected number of values.
+     */
+    public LongHashSet(int capacity) {
+        int n = 16;
+        while ( n < capacity * 2 ) {
+            n <<= 1;
+        }
+        table = new long[n];
+    }
+
+    /**
+     * Adds a value to the set.
+     * 
+     * @param value The value to add.
+     * @return {@code true} if the value was not already in the set.
+     */
+    public boolean add(long value) {
+        if ( value == 0 ) {
+            if ( hasZero ) {
+                return false;
+            }
+            hasZero = true;
+            size += 1;
+            return true;
+        }
+
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        while ( table[i] != 0 ) {
+            if ( table[i] == value ) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        size += 1;
+        if ( size * 2 > table.length ) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a value is in the set.
+     * 
+     * @param value The value to look for.
+     * @return {@code true} if the set contains the value.
+     */
+    public boolean contains(long value) {
+        if ( value == 0 ) {
+            return hasZero;
+        }
+
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        while ( table[i] != 0 ) {
+            if ( table[i] == value ) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of values in the set.
+     * 
+     * @return The size of the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Doubles the size of the table and re-inserts all values.
+     */
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        int mask = table.length - 1;
+        for ( long value : old ) {
+            if ( value != 0 ) {
+                int i = mix(value) & mask;
+                while ( table[i] != 0 ) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = value;
+            }
+        }
+    }
+
+    /*
+     * Spreads the bits of a value, so that values that only differ in their
+     * high bits do not end up in the same slot.
+     */
+    private static int mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        return (int) value;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+
+/**
+ * Writes an inference-diff report in Markdown. This is the default format,
+ * intended for human readers (e.g. as a comment on a pull request).
+ */
+public class MarkdownDiffReportWriter extends AbstractDiffReportWriter {
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param out        The writer to write the report to; it should be buffered.
+     * @param baseLabels The labels of the classes in the base ontology.
+     * @param headLabels The labels of the classes in the new ontology.
+     */
+    public MarkdownDiffReportWriter(Writer out, Map<IRI, String> baseLabels, Map<IRI, String> headLabels) {
+        super(out, baseLabels, headLabels);
+    }
+
+    @Override
+    public void writeHeader(String description, int count) throws IOException {
+        out.write(String.format("%s: %d\n", description, count));
+        if ( count > 0 ) {
+            out.write('\n');
+        }
+    }
+
+    @Override
+    public void writeClass(OWLClass klass, Collection<OWLClass> removed, Collection<OWLClass> added)
+            throws IOException {
+        writeLink(getHeadLabel(klass), klass, "## ");
+
+        if ( removed.isEmpty() && added.isEmpty() ) {
+            out.write("No changes in inferred subclasses.\n");
+        } else {
+            if ( !removed.isEmpty() ) {
+                out.write(String.format("Removed subclasses: %d\n", removed.size()));
+                for ( OWLClass subclass : removed ) {
+                    writeLink(getBaseLabel(subclass), subclass, "* ");
+                }
+            }
+            if ( !added.isEmpty() ) {
+                if ( !removed.isEmpty() ) {
+                    out.write('\n');
+                }
+                out.write(String.format("Added subclasses: %d\n", added.size()));
+                for ( OWLClass subclass : added ) {
+                    writeLink(getHeadLabel(subclass), subclass, "* ");
+                }
+            }
+        }
+        out.write('\n');
+    }
+
+    private void writeLink(String label, OWLClass c, String prefix) throws IOException {
+        out.write(prefix);
+        out.write('[');
+        out.write(label);
+        out.write("](");
+        out.write(c.getIRI().toString());
+        out.write(")\n");
+    }
+}
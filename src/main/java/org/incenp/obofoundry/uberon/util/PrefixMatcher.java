@@ -0,0 +1,265 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A compiled set of IRI prefixes, each optionally associated with a score.
+ * <p>
+ * Prefixes are stored in a trie, so that finding the prefixes matching a given
+ * IRI requires a single pass over the characters of the IRI, regardless of the
+ * number of prefixes, and without allocating any object.
+ * <p>
+ * Two kinds of prefixes are supported:
+ * <ul>
+ * <li>IRI prefixes (added with {@link #addIRIPrefix(String, Double)}), which
+ * match any IRI that starts with the prefix;
+ * <li>ID prefixes (added with {@link #addIdPrefix(String, Double)}), such as
+ * {@code UBERON}, which match any IRI that contains the prefix immediately
+ * after a {@code /} or {@code #} character.
+ * </ul>
+ * When several prefixes match the same IRI, the longest one wins.
+ */
+public class PrefixMatcher {
+
+    private Node iriRoot = new Node();
+    private Node idRoot = new Node();
+    private int size = 0;
+
+    /**
+     * Adds an IRI prefix.
+     * 
+     * @param prefix The prefix to add. It will match any IRI starting with it.
+     * @param score  The score associated with the prefix (may be {@code null}).
+     */
+    public void addIRIPrefix(String prefix, Double score) {
+        insert(iriRoot, prefix, score);
+    }
+
+    /**
+     * Adds an ID prefix.
+     * 
+     * @param prefix The prefix to add. It will match any IRI containing it right
+     *               after a {@code /} or {@code #} character.
+     * @param score  The score associated with the prefix (may be {@code null}).
+     */
+    public void addIdPrefix(String prefix, Double score) {
+        insert(idRoot, prefix, score);
+    }
+
+    /**
+     * Adds a prefix of either kind. Prefixes starting with {@code http} are
+     * treated as IRI prefixes, other prefixes are treated as ID prefixes.
+     * 
+     * @param prefix The prefix to add.
+     * @param score  The score associated with the prefix (may be {@code null}).
+     */
+    public void addPrefix(String prefix, Double score) {
+        if ( prefix.startsWith("http") ) {
+            addIRIPrefix(prefix, score);
+        } else {
+            addIdPrefix(prefix, score);
+        }
+    }
+
+    /**
+     * Checks whether the matcher contains any prefix.
+     * 
+     * @return {@code true} if no prefix has been added, otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether an IRI matches any of the prefixes.
+     * 
+     * @param iri The IRI to check.
+     * @return {@code true} if at least one prefix matches the IRI.
+     */
+    public boolean matches(String iri) {
+        return find(iri) != null;
+    }
+
+    /**
+     * Gets the longest prefix matching an IRI.
+     * 
+     * @param iri The IRI to check.
+     * @return The matching prefix, as it was added to the matcher, or
+     *         {@code null} if no prefix matches.
+     */
+    public String getMatchingPrefix(String iri) {
+        Node n = find(iri);
+        return n != null ? n.prefix : null;
+    }
+
+    /**
+     * Gets all the prefixes matching an IRI.
+     * 
+     * @param iri The IRI to check.
+     * @return The set of matching prefixes, as they were added to the matcher
+     *         (empty if no prefix matches).
+     */
+    public Set<String> getMatchingPrefixes(String iri) {
+        Set<String> prefixes = new HashSet<String>();
+        collect(iriRoot, iri, 0, prefixes);
+        if ( !idRoot.isLeaf() || idRoot.prefix != null ) {
+            for ( int i = 1, len = iri.length(); i <= len; i++ ) {
+                char c = iri.charAt(i - 1);
+                if ( c == '/' || c == '#' ) {
+                    collect(idRoot, iri, i, prefixes);
+                }
+            }
+        }
+        return prefixes;
+    }
+
+    /**
+     * Gets the score associated with the longest prefix matching an IRI.
+     * 
+     * @param iri The IRI to check.
+     * @return The score of the matching prefix, or {@code null} if no prefix
+     *         matches (or if the matching prefix has no score).
+     */
+    public Double getScore(String iri) {
+        Node n = find(iri);
+        return n != null ? n.score : null;
+    }
+
+    /*
+     * Adds a prefix to one of the tries, replacing the score if the prefix was
+     * already present.
+     */
+    private void insert(Node root, String prefix, Double score) {
+        Node n = root;
+        for ( int i = 0, len = prefix.length(); i < len; i++ ) {
+            n = n.getOrCreateChild(prefix.charAt(i));
+        }
+        if ( n.prefix == null ) {
+            size += 1;
+        }
+        n.prefix = prefix;
+        n.score = score;
+    }
+
+    /*
+     * Finds the node corresponding to the longest prefix matching the IRI.
+     */
+    private Node find(String iri) {
+        Node best = walk(iriRoot, iri, 0, null);
+        if ( !idRoot.isLeaf() || idRoot.prefix != null ) {
+            for ( int i = 1, len = iri.length(); i <= len; i++ ) {
+                char c = iri.charAt(i - 1);
+                if ( c == '/' || c == '#' ) {
+                    best = walk(idRoot, iri, i, best);
+                }
+            }
+        }
+        return best;
+    }
+
+    /*
+     * Walks down a trie from the given position in the IRI, and returns the
+     * deepest terminal node found if it corresponds to a longer prefix than the
+     * current best match.
+     */
+    private Node walk(Node root, String iri, int start, Node best) {
+        Node n = root;
+        int i = start;
+        int len = iri.length();
+        while ( n != null ) {
+            if ( n.prefix != null && (best == null || n.prefix.length() > best.prefix.length()) ) {
+                best = n;
+            }
+            n = i < len ? n.getChild(iri.charAt(i++)) : null;
+        }
+        return best;
+    }
+
+    /*
+     * Walks down a trie from the given position in the IRI, and collects the
+     * prefixes of all the terminal nodes found.
+     */
+    private void collect(Node root, String iri, int start, Set<String> prefixes) {
+        Node n = root;
+        int i = start;
+        int len = iri.length();
+        while ( n != null ) {
+            if ( n.prefix != null ) {
+                prefixes.add(n.prefix);
+            }
+            n = i < len ? n.getChild(iri.charAt(i++)) : null;
+        }
+    }
+
+    /*
+     * A node in a prefix trie. Children are stored in arrays sorted by character.
+     */
+    private static class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private String prefix;
+        private Double score;
+
+        boolean isLeaf() {
+            return keys.length == 0;
+        }
+
+        Node getChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node getOrCreateChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if ( i >= 0 ) {
+                return children[i];
+            }
+
+            i = -(i + 1);
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            newKeys[i] = c;
+            newChildren[i] = new Node();
+            System.arraycopy(keys, i, newKeys, i + 1, keys.length - i);
+            System.arraycopy(children, i, newChildren, i + 1, children.length - i);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[i];
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.functional.renderer.FunctionalSyntaxObjectRenderer;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.util.OWLObjectDuplicator;
+
+/**
+ * Writes an ontology in OWL Functional Syntax, renaming some entities on the
+ * fly.
+ * <p>
+ * This is an alternative to renaming entities in memory with
+ * {@link org.semanticweb.owlapi.util.OWLEntityRenamer} before saving the
+ * ontology: the axioms are rewritten one at a time as they are written out, so
+ * that neither the list of changes nor the renamed copies of all the affected
+ * axioms have to be held in memory. The ontology itself is left untouched.
+ * <p>
+ * Axioms that become trivial once renamed (reflexive SubClassOf axioms and
+ * unary EquivalentClasses axioms) are not written. Axioms that become
+ * identical to another axiom once renamed are only written once; to avoid
+ * keeping the renamed axioms in memory, they are recognised by their
+ * {@link Fingerprint}.
+ * <p>
+ * The logical content of the output is therefore the same as if the ontology
+ * had been renamed in memory and saved normally, but the file itself is not:
+ * unlike the OWLAPI's own functional syntax storer, this writer does not group
+ * and sort axioms by entity, and writes them in the order they are returned
+ * by the ontology instead.
+ */
+public class RenamingOntologyWriter {
+
+    private OWLOntology ontology;
+    private Map<OWLEntity, IRI> renamings;
+    private Set<IRI> renamedIRIs = new HashSet<IRI>();
+    private OWLObjectDuplicator duplicator;
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param ontology  The ontology to write.
+     * @param renamings A map associating each entity to rename to its new IRI.
+     */
+    public RenamingOntologyWriter(OWLOntology ontology, Map<OWLEntity, IRI> renamings) {
+        this.ontology = ontology;
+        this.renamings = renamings;
+        for ( OWLEntity e : renamings.keySet() ) {
+            renamedIRIs.add(e.getIRI());
+        }
+        duplicator = new OWLObjectDuplicator(renamings, ontology.getOWLOntologyManager().getOWLDataFactory());
+    }
+
+    /**
+     * Writes the ontology.
+     * 
+     * @param writer The writer to write the ontology to. It is flushed but not
+     *               closed.
+     * @throws IOException If any I/O error occurs.
+     */
+    public void write(Writer writer) throws IOException {
+        Renderer renderer = new Renderer(ontology, writer);
+        renderer.writeHeader();
+
+        LongHashSet renamedAxioms = new LongHashSet();
+        for ( OWLAxiom axiom : ontology.getAxioms() ) {
+            if ( needsRenaming(axiom) ) {
+                axiom = duplicator.duplicateObject(axiom);
+                if ( isTrivial(axiom) || ontology.containsAxiom(axiom) || !renamedAxioms.add(Fingerprint.of(axiom)) ) {
+                    // Trivial, or already written (or to be written) as another axiom
+                    continue;
+                }
+            }
+            axiom.accept(renderer);
+            writer.write('\n');
+        }
+
+        writer.write(")\n");
+        writer.flush();
+    }
+
+    /*
+     * Checks whether an axiom refers to any of the entities to rename.
+     */
+    private boolean needsRenaming(OWLAxiom axiom) {
+        if ( axiom.isOfType(AxiomType.ANNOTATION_ASSERTION) ) {
+            OWLAnnotationAssertionAxiom aaa = (OWLAnnotationAssertionAxiom) axiom;
+            if ( renamedIRIs.contains(aaa.getSubject()) || renamedIRIs.contains(aaa.getValue()) ) {
+                return true;
+            }
+        }
+        for ( OWLEntity e : axiom.getSignature() ) {
+            if ( renamings.containsKey(e) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Checks whether a renamed axiom has become trivial.
+     */
+    private boolean isTrivial(OWLAxiom axiom) {
+        if ( axiom.isOfType(AxiomType.SUBCLASS_OF) ) {
+            OWLSubClassOfAxiom sca = (OWLSubClassOfAxiom) axiom;
+            return sca.getSubClass().equals(sca.getSuperClass());
+        } else if ( axiom.isOfType(AxiomType.EQUIVALENT_CLASSES) ) {
+            return ((OWLEquivalentClassesAxiom) axiom).getClassExpressions().size() < 2;
+        }
+        return false;
+    }
+
+    /*
+     * The OWLAPI renderer, extended to write the ontology header without
+     * writing the axioms.
+     */
+    private static class Renderer extends FunctionalSyntaxObjectRenderer {
+
+        private Writer writer;
+
+        Renderer(OWLOntology ontology, Writer writer) {
+            super(ontology, writer);
+            this.writer = writer;
+        }
+
+        void writeHeader() throws IOException {
+            writePrefixes();
+            writer.write("\n\nOntology(");
+            OWLOntologyID id = ont.getOntologyID();
+            if ( id.getOntologyIRI().isPresent() ) {
+                writer.write("<" + id.getOntologyIRI().get() + ">");
+                if ( id.getVersionIRI().isPresent() ) {
+                    writer.write("\n<" + id.getVersionIRI().get() + ">");
+                }
+            }
+            writer.write('\n');
+            for ( OWLImportsDeclaration decl : ont.getImportsDeclarations() ) {
+                writer.write("Import(<" + decl.getIRI() + ">)\n");
+            }
+            for ( OWLAnnotation annotation : ont.getAnnotations() ) {
+                annotation.accept(this);
+                writer.write('\n');
+            }
+            writer.write('\n');
+        }
+    }
+}
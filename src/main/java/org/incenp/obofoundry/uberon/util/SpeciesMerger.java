@@ -31,20 +31,32 @@
 
 package org.incenp.obofoundry.uberon.util;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
 
+import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
-import org.semanticweb.owlapi.model.OWLAnnotationValue;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassAxiom;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDisjointClassesAxiom;
 import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
 import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLNaryBooleanClassExpression;
@@ -57,11 +69,15 @@ import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
 import org.semanticweb.owlapi.model.OWLObjectUnionOf;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.RemoveAxiom;
 import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.util.OWLAxiomVisitorAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This class may be used to create multi-species ontologies following the
@@ -73,7 +89,12 @@ import org.semanticweb.owlapi.util.OWLAxiomVisitorAdapter;
  * "https://github.com/owlcollab/owltools/blob/master/OWLTools-Core/src/main/java/owltools/mooncat/SpeciesMergeUtil.java">implementation</a>
  * of that strategy in OWLTools.
  */
-public class SpeciesMerger extends OWLAxiomVisitorAdapter {
+public class SpeciesMerger {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpeciesMerger.class);
+
+    private static final String[] DEFAULT_SKIPPED_SUBSETS = { "upper_level", "non_informative",
+            "early_development" };
 
     private OWLClass taxClass;
     private Set<OWLObjectProperty> includedProperties;
@@ -84,16 +105,35 @@ public class SpeciesMerger extends OWLAxiomVisitorAdapter {
     private OWLDataFactory factory;
     private OWLReasoner reasoner;
 
-    private OWLClass txRootClass;
     private Set<OWLClass> txClasses;
     private Map<OWLClass, OWLClass> ecMap;
     private Map<OWLClass, OWLClassExpression> exMap;
-    private OWLAxiom translatedAxiom;
-    private OWLClass subject;
+    private AncestorClosureCache ancestors;
+    private Set<OWLClass> skippedClasses;
+    private Map<OWLClassExpression, Optional<OWLClassExpression>> translations;
+    private Map<OWLClassExpression, Optional<OWLClassExpression>> equivTranslations;
+    private LongAdder cacheHits = new LongAdder();
+    private LongAdder cacheMisses = new LongAdder();
+
+    private Map<OWLClassExpression, OWLClass> probes = new HashMap<OWLClassExpression, OWLClass>();
+    private Map<OWLClass, Set<OWLClass>> probeSubClasses = new HashMap<OWLClass, Set<OWLClass>>();
+    private Set<OWLClass> probeClasses = new HashSet<OWLClass>();
+    private Set<OWLClass> mergedClasses = new HashSet<OWLClass>();
+
+    private List<OWLOntologyChange> pendingChanges = new ArrayList<OWLOntologyChange>();
+    private Set<OWLAxiom> pendingAdditions = new HashSet<OWLAxiom>();
+    private Set<OWLAxiom> pendingRemovals = new HashSet<OWLAxiom>();
 
     private boolean extendedTranslation = false;
     private GCAMergeMode gcaMode = GCAMergeMode.ORIGINAL;
     private boolean removeDeclaration = false;
+    private Set<String> skippedSubsets = new HashSet<String>(Arrays.asList(DEFAULT_SKIPPED_SUBSETS));
+    private boolean bufferChanges = false;
+    private int threads = 0;
+    private boolean deferGCAs = false;
+    private boolean structuralSearch = false;
+    private Map<OWLClass, OWLClass> deferredEcMap = new HashMap<OWLClass, OWLClass>();
+    private Map<OWLClass, OWLClassExpression> deferredExMap = new HashMap<OWLClass, OWLClassExpression>();
 
     /**
      * Creates a new instance.
@@ -137,6 +177,23 @@ public class SpeciesMerger extends OWLAxiomVisitorAdapter {
         gcaMode = mode;
     }
 
+    /**
+     * Enables or disables deferred processing of general class axioms.
+     * <p>
+     * By default, if general class axioms are to be translated or deleted (see
+     * {@link #setGCAMode(GCAMergeMode)}), this is done at the end of each merge
+     * operation, which means all general class axioms are checked (and possibly
+     * translated again) after every operation. If this option is enabled, merge
+     * operations only record the classes they have merged, and general class
+     * axioms are processed once for all operations when
+     * {@link #mergeGeneralClassAxioms()} is called.
+     * 
+     * @param b {@code true} to defer processing of general class axioms.
+     */
+    public void setDeferGCAs(boolean b) {
+        deferGCAs = b;
+    }
+
     /**
      * Enables or disables removal of declaration axioms for classes that have been
      * replaced by a translated expression. This avoids a lot of dangling and unused
@@ -149,6 +206,185 @@ public class SpeciesMerger extends OWLAxiomVisitorAdapter {
         removeDeclaration = b;
     }
 
+    /**
+     * Enables or disables buffering of changes to the ontology.
+     * <p>
+     * By default, changes are applied to the ontology as soon as the axioms of a
+     * taxon-specific class have been translated. If this option is enabled, all
+     * changes are instead accumulated until {@link #applyChanges()} is called, so
+     * that they can be applied as a single list of changes (and the reasoner only
+     * sees a single set of changes). This may be used to apply all the changes of
+     * a single merge operation at once, or all the changes of several merge
+     * operations.
+     * <p>
+     * When changes are buffered, the axioms of the taxon-specific classes are
+     * read from the ontology as it was when the changes started to be buffered.
+     * General class axioms, however, are read from the ontology as it would be
+     * with all the pending changes applied, and so are the asserted SubClassOf
+     * axioms used to decide whether a translated SubClassOf axiom is redundant.
+     * The output is therefore the same as without buffering, unless a
+     * taxon-specific class has itself been modified by the translation of
+     * another class. Pending changes are always applied before the ontology is
+     * classified to find taxon-specific classes.
+     * 
+     * @param b {@code true} to enable buffering of changes.
+     */
+    public void setBufferChanges(boolean b) {
+        bufferChanges = b;
+    }
+
+    /**
+     * Applies all the changes that have been accumulated since the last call to
+     * this method. This is only useful if buffering of changes has been enabled
+     * with {@link #setBufferChanges(boolean)}.
+     * 
+     * @return The number of changes that have been applied.
+     */
+    public int applyChanges() {
+        int n = pendingChanges.size();
+        if ( n > 0 ) {
+            // The ancestor cache has already been told about those changes.
+            if ( ancestors != null ) {
+                manager.removeOntologyChangeListener(ancestors);
+            }
+            manager.applyChanges(pendingChanges);
+            if ( ancestors != null ) {
+                manager.addOntologyChangeListener(ancestors);
+            }
+            pendingChanges.clear();
+            pendingAdditions.clear();
+            pendingRemovals.clear();
+        }
+        return n;
+    }
+
+    /**
+     * Releases the resources held by this object. The merger stops listening to
+     * changes to the ontology, and should not be used afterwards. This does not
+     * dispose of the reasoner, which belongs to the caller.
+     */
+    public void dispose() {
+        if ( ancestors != null ) {
+            manager.removeOntologyChangeListener(ancestors);
+            ancestors = null;
+        }
+    }
+
+    /**
+     * Sets the number of threads to use to translate the axioms of taxon-specific
+     * classes.
+     * <p>
+     * Once this method has been called, the axioms of all the taxon-specific
+     * classes are first collected (along with everything that is needed from the
+     * reasoner), then translated in parallel, and the resulting changes are
+     * finally committed in the same order as the classes were collected. The
+     * output is therefore the same regardless of the number of threads.
+     * <p>
+     * It may however differ from the output obtained when this method is not
+     * called at all. In that case, the changes resulting from the translation of
+     * a class are committed before the next class is translated, so that a
+     * translated SubClassOf axiom may be found to be redundant with an axiom
+     * added for a previously translated class; when the axioms are translated in
+     * parallel, such axioms are kept. Note also that, as for buffered changes
+     * (see {@link #setBufferChanges(boolean)}), the axioms of all the
+     * taxon-specific classes are then read from the ontology before any change is
+     * made.
+     * 
+     * @param n The number of threads to use.
+     */
+    public void setThreads(int n) {
+        threads = n > 0 ? n : 1;
+    }
+
+    /**
+     * Sets the subsets whose members should never be referenced by the axioms of
+     * an unfolded class. When translating the axioms of a taxon-specific class
+     * onto its taxon-neutral counterpart, any translated axiom referring to a
+     * class in one of those subsets is dropped.
+     * <p>
+     * A class is deemed to belong to a subset if it has an
+     * {@code oboInOwl:inSubset} annotation whose value is an IRI containing the
+     * subset name. The default subsets are {@code upper_level},
+     * {@code non_informative}, and {@code early_development}.
+     * 
+     * @param subsets The names of the subsets to exclude.
+     */
+    public void setSkippedSubsets(Collection<String> subsets) {
+        skippedSubsets.clear();
+        skippedSubsets.addAll(subsets);
+    }
+
+    /**
+     * Enables or disables the structural search for taxon-specific classes.
+     * <p>
+     * By default, taxon-specific classes are found by classifying the ontology
+     * with a probe class equivalent to {@code property some taxon}. If this
+     * option is enabled, they are first looked for in the asserted axioms only,
+     * by walking down the asserted hierarchy from the taxon; the ontology is
+     * only classified if the asserted axioms are not enough to reliably find all
+     * the taxon-specific classes (for example, if the linking property has
+     * sub-properties, or if some relevant axioms are general class axioms).
+     * <p>
+     * The reasoner is still needed to get the superclasses of the
+     * taxon-specific classes, but it is then only classified once and not
+     * flushed between merge operations. As with
+     * {@link #precomputeTaxonSpecificClasses(Map)}, this yields the same results
+     * as a classification before each merge as long as the merged taxa do not
+     * overlap.
+     * 
+     * @param b {@code true} to enable the structural search.
+     */
+    public void setStructuralSearch(boolean b) {
+        structuralSearch = b;
+    }
+
+    /**
+     * Lists the taxon-specific classes for several merge operations at once.
+     * <p>
+     * By default, each call to {@link #merge(IRI, IRI, String, List)} needs to
+     * classify the ontology to find the taxon-specific classes for the requested
+     * taxon. This method instead injects the probe classes for all the specified
+     * taxa into the ontology, classifies the ontology only once, and records the
+     * taxon-specific classes for each taxon; subsequent calls to {@code merge} for
+     * any of those taxa will use the recorded classes without classifying the
+     * ontology again.
+     * <p>
+     * Note that the recorded classes reflect the state of the ontology before any
+     * merge is performed. Classes that have been folded into their taxon-neutral
+     * counterpart by a previous merge are excluded, which is enough to get the
+     * same results as with a classification before each merge as long as the
+     * merged taxa do not overlap (none of them is an ancestor of another).
+     * 
+     * @param taxa A map associating each taxon to merge to the properties
+     *             linking taxon-specific classes to their taxon-neutral
+     *             counterparts.
+     */
+    public void precomputeTaxonSpecificClasses(Map<IRI, ? extends Collection<IRI>> taxa) {
+        applyChanges();
+        Set<OWLAxiom> probeAxioms = new HashSet<OWLAxiom>();
+        for ( IRI taxon : taxa.keySet() ) {
+            int n = 0;
+            for ( IRI property : taxa.get(taxon) ) {
+                OWLClassExpression probe = factory.getOWLObjectSomeValuesFrom(factory.getOWLObjectProperty(property),
+                        factory.getOWLClass(taxon));
+                if ( probes.containsKey(probe) ) {
+                    continue;
+                }
+                OWLClass probeClass = factory.getOWLClass(IRI.create(taxon.toString() + "-part-" + ++n));
+                probes.put(probe, probeClass);
+                probeClasses.add(probeClass);
+                probeAxioms.add(factory.getOWLEquivalentClassesAxiom(probeClass, probe));
+            }
+        }
+
+        manager.addAxioms(ontology, probeAxioms);
+        reasoner.flush();
+        for ( OWLClass probeClass : probes.values() ) {
+            probeSubClasses.put(probeClass, reasoner.getSubClasses(probeClass, false).getFlattened());
+        }
+        manager.removeAxioms(ontology, probeAxioms);
+    }
+
     /**
      * Unfold classes for the specified taxon over the specified linking property.
      * 
@@ -174,78 +410,320 @@ public class SpeciesMerger extends OWLAxiomVisitorAdapter {
         OWLObjectProperty linkProperty = factory.getOWLObjectProperty(property);
         listTaxonSpecificClasses(linkProperty);
         createMaps(linkProperty);
+        listSkippableClasses();
+
+        // Translations of class expressions only depend on the maps above, so they can
+        // be cached for the duration of this merge.
+        resetTranslationCache();
+
+        // The index of asserted subclasses is built once and then kept up-to-date
+        // through the listener, but the reasoner may have been flushed since the
+        // previous merge.
+        if ( ancestors == null ) {
+            ancestors = new AncestorClosureCache(ontology, reasoner);
+            manager.addOntologyChangeListener(ancestors);
+        } else {
+            ancestors.resetAncestors();
+        }
+
+        if ( threads > 0 ) {
+            translateClassesInParallel();
+        } else {
+            AxiomTranslator translator = new AxiomTranslator();
+            for ( OWLClass c : txClasses ) {
+                if ( c.isBottomEntity() ) {
+                    continue;
+                }
+
+                checkSatisfiable(c);
+                Set<OWLAxiom> axioms = getClassAxioms(c);
+                commitChanges(axioms, translator.translateClass(c, axioms));
+            }
+        }
 
+        // Translate or delete general class axioms?
+        if ( gcaMode != GCAMergeMode.ORIGINAL ) {
+            if ( deferGCAs ) {
+                for ( OWLClass c : ecMap.keySet() ) {
+                    deferredEcMap.putIfAbsent(c, ecMap.get(c));
+                    deferredExMap.putIfAbsent(c, exMap.get(c));
+                }
+            } else {
+                processGeneralClassAxioms();
+            }
+        }
+
+        mergedClasses.addAll(ecMap.keySet());
+
+        logTranslationCacheStats();
+        translations = null;
+        equivTranslations = null;
+    }
+
+    /**
+     * Computes what a merge operation would do, without actually performing it.
+     * <p>
+     * This finds the taxon-specific classes for the specified taxon (using the
+     * classes recorded by {@link #precomputeTaxonSpecificClasses(Map)} if
+     * available) and collects some figures about the axioms that would be
+     * affected by the merge. The ontology is left unchanged.
+     * 
+     * @param taxon    The taxon to unfold for.
+     * @param property The property linking taxon-specific classes to their
+     *                 taxon-neutral counterparts.
+     * @return A summary of the merge operation.
+     */
+    public MergePlan plan(IRI taxon, IRI property) {
+        taxClass = factory.getOWLClass(taxon);
+        OWLObjectProperty linkProperty = factory.getOWLObjectProperty(property);
+        listTaxonSpecificClasses(linkProperty);
+        createMaps(linkProperty);
+
+        MergePlan plan = new MergePlan(taxon, property);
+        plan.taxonFound = ontology.containsClassInSignature(taxon, Imports.INCLUDED);
         for ( OWLClass c : txClasses ) {
             if ( c.isBottomEntity() ) {
                 continue;
             }
-
-            if ( !reasoner.isSatisfiable(c) ) {
-                throw new ReasoningException("Ontology contains unsatisfiable classes",
-                        reasoner.getUnsatisfiableClasses().getEntitiesMinusBottom());
+            plan.taxonSpecificClasses += 1;
+            plan.axioms += getClassAxioms(c).size();
+        }
+        plan.mergedClasses = ecMap.size();
+        for ( OWLAxiom axiom : getGeneralClassAxioms() ) {
+            if ( isAxiomUsingMergedClass(axiom) ) {
+                plan.generalClassAxioms += 1;
             }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Translates or deletes the general class axioms that refer to a class merged
+     * by any of the previous merge operations. This is only useful if general
+     * class axioms processing has been deferred with
+     * {@link #setDeferGCAs(boolean)}.
+     * <p>
+     * Each affected general class axiom is translated only once, using the
+     * combined mappings of all the merge operations since the last call to this
+     * method, instead of being translated again after each merge operation.
+     */
+    public void mergeGeneralClassAxioms() {
+        if ( gcaMode == GCAMergeMode.ORIGINAL || deferredEcMap.isEmpty() ) {
+            return;
+        }
+
+        ecMap = deferredEcMap;
+        exMap = deferredExMap;
+        resetTranslationCache();
+        processGeneralClassAxioms();
+        logTranslationCacheStats();
+
+        deferredEcMap = new HashMap<OWLClass, OWLClass>();
+        deferredExMap = new HashMap<OWLClass, OWLClassExpression>();
+        translations = null;
+        equivTranslations = null;
+    }
+
+    private void resetTranslationCache() {
+        translations = new ConcurrentHashMap<OWLClassExpression, Optional<OWLClassExpression>>();
+        equivTranslations = new ConcurrentHashMap<OWLClassExpression, Optional<OWLClassExpression>>();
+        cacheHits.reset();
+        cacheMisses.reset();
+    }
+
+    private void logTranslationCacheStats() {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        logger.info("Translation cache: {} hits out of {} lookups ({}%), {} untranslatable expressions", hits,
+                total, total > 0 ? hits * 100 / total : 0, countUntranslatable());
+    }
 
-            Set<OWLAxiom> axioms = new HashSet<OWLAxiom>();
-            axioms.addAll(ontology.getAxioms(c, Imports.EXCLUDED));
-            axioms.addAll(ontology.getAnnotationAssertionAxioms(c.getIRI()));
-            for ( OWLClass p : reasoner.getSuperClasses(c, true).getFlattened() ) {
-                axioms.add(factory.getOWLSubClassOfAxiom(c, p));
+    /*
+     * Translate or delete the general class axioms that refer to a merged class,
+     * depending on the GCA merge mode.
+     */
+    private void processGeneralClassAxioms() {
+        AxiomTranslator translator = new AxiomTranslator();
+        Set<OWLAxiom> gcAxioms = new HashSet<OWLAxiom>();
+        Set<OWLAxiom> newAxioms = new HashSet<OWLAxiom>();
+        for ( OWLAxiom axiom : getGeneralClassAxioms() ) {
+            if ( !isAxiomUsingMergedClass(axiom) ) {
+                continue; // Keep unaffected axiom
             }
 
-            Set<OWLAxiom> newAxioms = new HashSet<OWLAxiom>();
-            subject = c;
-            for ( OWLAxiom axiom : axioms ) {
-                translatedAxiom = null;
-                axiom.accept(this);
-                
-                if ( translatedAxiom != null && ecMap.containsKey(c) ) {
-                    for ( OWLClass sc : translatedAxiom.getClassesInSignature() ) {
-                        if (isSkippable(sc)) {
-                            translatedAxiom = null;
-                            break;
-                        }
+            gcAxioms.add(axiom);
+            if ( gcaMode == GCAMergeMode.TRANSLATE ) {
+                OWLAxiom translatedAxiom = translator.translate(axiom);
+                if ( translatedAxiom != null ) {
+                    if ( !axiom.getAnnotations().isEmpty() ) {
+                        // Keep original annotations
+                        translatedAxiom = translatedAxiom.getAnnotatedAxiom(axiom.getAnnotations());
                     }
-                }
-                
-                if ( translatedAxiom != null && !translatedAxiom.getClassesInSignature().contains(txRootClass) ) {
                     newAxioms.add(translatedAxiom);
                 }
             }
+        }
 
-            if ( removeDeclaration && ecMap.containsKey(c) ) {
-                axioms.add(factory.getOWLDeclarationAxiom(c));
+        commitChanges(gcAxioms, newAxioms);
+    }
+
+    /*
+     * Translate the axioms of all taxon-specific classes using several threads.
+     * Everything that requires the reasoner or reading the ontology is done
+     * beforehand, so that the parallel part only involves the translation itself.
+     */
+    private void translateClassesInParallel() throws ReasoningException {
+        List<OWLClass> classes = new ArrayList<OWLClass>();
+        List<Set<OWLAxiom>> classAxioms = new ArrayList<Set<OWLAxiom>>();
+        for ( OWLClass c : txClasses ) {
+            if ( c.isBottomEntity() ) {
+                continue;
             }
 
-            manager.removeAxioms(ontology, axioms);
-            manager.addAxioms(ontology, newAxioms);
+            checkSatisfiable(c);
+            classes.add(c);
+            classAxioms.add(getClassAxioms(c));
+            if ( ecMap.containsKey(c) ) {
+                ancestors.load(ecMap.get(c));
+            }
         }
 
-        // Translate or delete general class axioms?
-        if ( gcaMode != GCAMergeMode.ORIGINAL ) {
-            Set<OWLAxiom> gcAxioms = new HashSet<OWLAxiom>();
-            gcAxioms.addAll(ontology.getGeneralClassAxioms());
+        List<Set<OWLAxiom>> newAxioms = new ArrayList<Set<OWLAxiom>>(Collections.nCopies(classes.size(), null));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> IntStream.range(0, classes.size()).parallel().forEach(
+                    i -> newAxioms.set(i, new AxiomTranslator().translateClass(classes.get(i), classAxioms.get(i)))))
+                    .join();
+        } finally {
+            pool.shutdown();
+        }
 
-            Set<OWLAxiom> newAxioms = new HashSet<OWLAxiom>();
-            for ( OWLAxiom axiom : gcAxioms ) {
-                if ( !isAxiomUsingMergedClass(axiom) ) {
-                    newAxioms.add(axiom); // Keep unaffected axiom
-                } else if ( gcaMode == GCAMergeMode.TRANSLATE ) {
-                    translatedAxiom = null;
-                    axiom.accept(this);
-
-                    if ( translatedAxiom != null ) {
-                        if ( !axiom.getAnnotations().isEmpty() ) {
-                            // Keep original annotations
-                            translatedAxiom = translatedAxiom.getAnnotatedAxiom(axiom.getAnnotations());
-                        }
-                        newAxioms.add(translatedAxiom);
-                    }
+        for ( int i = 0; i < classes.size(); i++ ) {
+            commitChanges(classAxioms.get(i), newAxioms.get(i));
+        }
+    }
+
+    private void checkSatisfiable(OWLClass c) throws ReasoningException {
+        if ( !reasoner.isSatisfiable(c) ) {
+            throw new ReasoningException("Ontology contains unsatisfiable classes",
+                    reasoner.getUnsatisfiableClasses().getEntitiesMinusBottom());
+        }
+    }
+
+    /*
+     * Get all the axioms to translate for a taxon-specific class. This includes
+     * the inferred direct superclasses, and the declaration axiom if the class
+     * is to be removed.
+     */
+    private Set<OWLAxiom> getClassAxioms(OWLClass c) {
+        Set<OWLAxiom> axioms = new HashSet<OWLAxiom>();
+        axioms.addAll(ontology.getAxioms(c, Imports.EXCLUDED));
+        axioms.addAll(ontology.getAnnotationAssertionAxioms(c.getIRI()));
+        for ( OWLClass p : reasoner.getSuperClasses(c, true).getFlattened() ) {
+            axioms.add(factory.getOWLSubClassOfAxiom(c, p));
+        }
+        if ( removeDeclaration && ecMap.containsKey(c) ) {
+            axioms.add(factory.getOWLDeclarationAxiom(c));
+        }
+        return axioms;
+    }
+
+    /*
+     * Remove and add the specified axioms, either immediately or by adding them
+     * to the list of pending changes.
+     */
+    private void commitChanges(Set<OWLAxiom> removed, Set<OWLAxiom> added) {
+        if ( !bufferChanges ) {
+            manager.removeAxioms(ontology, removed);
+            manager.addAxioms(ontology, added);
+            return;
+        }
+
+        // Pending additions (resp. removals) are the axioms that are not (resp. are)
+        // in the ontology and will be (resp. will no longer be) once the changes are
+        // applied. The ancestor cache is told about every effective change, so that
+        // redundancy checks see the ontology as it will be.
+        for ( OWLAxiom axiom : removed ) {
+            pendingChanges.add(new RemoveAxiom(ontology, axiom));
+            boolean present = isPresent(axiom);
+            if ( ontology.containsAxiom(axiom) ) {
+                pendingRemovals.add(axiom);
+            } else {
+                pendingAdditions.remove(axiom);
+            }
+            if ( present && ancestors != null && axiom instanceof OWLSubClassOfAxiom ) {
+                ancestors.removeToldSubClass((OWLSubClassOfAxiom) axiom);
+            }
+        }
+        for ( OWLAxiom axiom : added ) {
+            pendingChanges.add(new AddAxiom(ontology, axiom));
+            boolean present = isPresent(axiom);
+            if ( ontology.containsAxiom(axiom) ) {
+                pendingRemovals.remove(axiom);
+            } else {
+                pendingAdditions.add(axiom);
+            }
+            if ( !present && ancestors != null && axiom instanceof OWLSubClassOfAxiom ) {
+                ancestors.addToldSubClass((OWLSubClassOfAxiom) axiom);
+            }
+        }
+    }
+
+    /*
+     * Checks whether an axiom would be in the ontology if all the pending
+     * changes were applied.
+     */
+    private boolean isPresent(OWLAxiom axiom) {
+        return ontology.containsAxiom(axiom) ? !pendingRemovals.contains(axiom) : pendingAdditions.contains(axiom);
+    }
+
+    /*
+     * Get all the general class axioms of the ontology, taking into account any
+     * pending change.
+     */
+    private Set<OWLClassAxiom> getGeneralClassAxioms() {
+        Set<OWLClassAxiom> gcAxioms = new HashSet<OWLClassAxiom>(ontology.getGeneralClassAxioms());
+        if ( !pendingChanges.isEmpty() ) {
+            gcAxioms.removeAll(pendingRemovals);
+            for ( OWLAxiom axiom : pendingAdditions ) {
+                if ( isGeneralClassAxiom(axiom) ) {
+                    gcAxioms.add((OWLClassAxiom) axiom);
                 }
             }
+        }
+        return gcAxioms;
+    }
+
+    private boolean isGeneralClassAxiom(OWLAxiom axiom) {
+        if ( axiom instanceof OWLSubClassOfAxiom ) {
+            return ((OWLSubClassOfAxiom) axiom).getSubClass().isAnonymous();
+        } else if ( axiom instanceof OWLEquivalentClassesAxiom ) {
+            return ((OWLEquivalentClassesAxiom) axiom).getNamedClasses().isEmpty();
+        } else if ( axiom instanceof OWLDisjointClassesAxiom ) {
+            return ((OWLDisjointClassesAxiom) axiom).getClassExpressions().stream().allMatch(x -> x.isAnonymous());
+        }
+        return false;
+    }
 
-            manager.removeAxioms(ontology, gcAxioms);
-            manager.addAxioms(ontology, newAxioms);
+    private long countUntranslatable() {
+        long n = 0;
+        for ( Optional<OWLClassExpression> tx : translations.values() ) {
+            n += tx.isPresent() ? 0 : 1;
         }
+        for ( Optional<OWLClassExpression> tx : equivTranslations.values() ) {
+            n += tx.isPresent() ? 0 : 1;
+        }
+        return n;
+    }
+
+    /*
+     * Check whether an axiom is referring to one of the probe classes used to
+     * find taxon-specific classes.
+     */
+    private boolean isProbeAxiom(OWLAxiom axiom) {
+        Set<OWLClass> signature = axiom.getClassesInSignature();
+        return !Collections.disjoint(signature, probeClasses);
     }
 
     /*
@@ -265,10 +743,34 @@ public class SpeciesMerger extends OWLAxiomVisitorAdapter {
      * subclasses of "<property> some <taxon>").
      */
     private void listTaxonSpecificClasses(OWLObjectProperty linkProperty) {
-        txRootClass = factory.getOWLClass(IRI.create(taxClass.getIRI().toString() + "-part"));
+        OWLClass probeClass = probes.get(factory.getOWLObjectSomeValuesFrom(linkProperty, taxClass));
+        if ( probeClass != null ) {
+            // Use the classes found by precomputeTaxonSpecificClasses, minus those that
+            // have already been merged in a previous operation.
+            txClasses = new HashSet<OWLClass>(probeSubClasses.get(probeClass));
+            txClasses.removeAll(mergedClasses);
+            return;
+        }
+
+        if ( structuralSearch ) {
+            txClasses = new AssertedSubClassFinder(ontology).find(linkProperty, taxClass);
+            if ( txClasses != null ) {
+                // The reasoner would also have listed the unsatisfiable classes, as
+                // subclasses of anything; keep them so that they are reported.
+                txClasses.addAll(reasoner.getUnsatisfiableClasses().getEntities());
+                txClasses.removeAll(mergedClasses);
+                return;
+            }
+            logger.info("Cannot find classes specific to {} from asserted axioms, classifying ontology",
+                    taxClass.getIRI());
+        }
+
+        applyChanges();
+        OWLClass txRootClass = factory.getOWLClass(IRI.create(taxClass.getIRI().toString() + "-part"));
         OWLEquivalentClassesAxiom qax = factory.getOWLEquivalentClassesAxiom(txRootClass,
                 factory.getOWLObjectSomeValuesFrom(linkProperty, taxClass));
         manager.addAxiom(ontology, qax);
+        probeClasses.add(txRootClass);
         reasoner.flush();
         txClasses = reasoner.getSubClasses(txRootClass, false).getFlattened();
         manager.removeAxiom(ontology, qax);
@@ -288,12 +790,15 @@ public class SpeciesMerger extends OWLAxiomVisitorAdapter {
         ecMap = new HashMap<OWLClass, OWLClass>();
         exMap = new HashMap<OWLClass, OWLClassExpression>();
 
-        for ( OWLEquivalentClassesAxiom eca : ontology.getAxioms(AxiomType.EQUIVALENT_CLASSES, Imports.INCLUDED) ) {
-            // Only get the axioms involving both the link property P and the taxon T.
-            if ( !eca.getClassesInSignature().contains(taxClass)
-                    || !eca.getObjectPropertiesInSignature().contains(linkProperty) ) {
+        // Only get the axioms involving both the link property P and the taxon T. We
+        // use the ontology's own index of referencing axioms to avoid iterating over
+        // all the EquivalentClasses axioms in the ontology.
+        for ( OWLAxiom axiom : ontology.getReferencingAxioms(taxClass, Imports.INCLUDED) ) {
+            if ( !axiom.isOfType(AxiomType.EQUIVALENT_CLASSES)
+                    || !axiom.getObjectPropertiesInSignature().contains(linkProperty) ) {
                 continue;
             }
+            OWLEquivalentClassesAxiom eca = (OWLEquivalentClassesAxiom) axiom;
 
             for ( OWLClass c : eca.getClassesInSignature() ) {
                 if ( !txClasses.contains(c) ) {
@@ -324,49 +829,64 @@ public class SpeciesMerger extends OWLAxiomVisitorAdapter {
             } else {
                 return ecMap.getOrDefault(x, (OWLClass) x);
             }
-        } else {
-            if ( x instanceof OWLObjectSomeValuesFrom ) {
-                OWLObjectSomeValuesFrom svf = (OWLObjectSomeValuesFrom) x;
-                OWLClassExpression filler = translateExpression(svf.getFiller(), mustBeEquiv);
-                if ( filler != null ) {
-                    return factory.getOWLObjectSomeValuesFrom(svf.getProperty(), filler);
-                }
-            } else if ( x instanceof OWLObjectIntersectionOf && extendedTranslation ) {
-                OWLObjectIntersectionOf oio = (OWLObjectIntersectionOf) x;
-                Set<OWLClassExpression> operands = translateExpressionOperands(oio, mustBeEquiv);
-                if ( operands.size() == oio.getOperands().size() ) {
-                    return factory.getOWLObjectIntersectionOf(operands);
-                }
-            } else if ( x instanceof OWLObjectUnionOf && extendedTranslation ) {
-                OWLObjectUnionOf ouo = (OWLObjectUnionOf) x;
-                Set<OWLClassExpression> operands = translateExpressionOperands(ouo, mustBeEquiv);
-                if ( operands.size() == ouo.getOperands().size() ) {
-                    return factory.getOWLObjectUnionOf(operands);
-                }
-            } else if ( x instanceof OWLObjectComplementOf && extendedTranslation ) {
-                OWLObjectComplementOf oco = (OWLObjectComplementOf) x;
-                OWLClassExpression operand = translateExpression(oco.getOperand(), mustBeEquiv);
-                if ( operand != null ) {
-                    return factory.getOWLObjectComplementOf(operand);
-                }
-            } else if ( x instanceof OWLObjectExactCardinality && extendedTranslation ) {
-                OWLObjectExactCardinality oec = (OWLObjectExactCardinality) x;
-                OWLClassExpression operand = translateExpression(oec.getFiller(), mustBeEquiv);
-                if ( operand != null ) {
-                    return factory.getOWLObjectExactCardinality(oec.getCardinality(), oec.getProperty(), operand);
-                }
-            } else if ( x instanceof OWLObjectMinCardinality && extendedTranslation ) {
-                OWLObjectMinCardinality omc = (OWLObjectMinCardinality) x;
-                OWLClassExpression operand = translateExpression(omc.getFiller(), mustBeEquiv);
-                if ( operand != null ) {
-                    return factory.getOWLObjectMinCardinality(omc.getCardinality(), omc.getProperty(), operand);
-                }
-            } else if ( x instanceof OWLObjectMaxCardinality && extendedTranslation ) {
-                OWLObjectMaxCardinality omc = (OWLObjectMaxCardinality) x;
-                OWLClassExpression operand = translateExpression(omc.getFiller(), mustBeEquiv);
-                if ( operand != null ) {
-                    return factory.getOWLObjectMaxCardinality(omc.getCardinality(), omc.getProperty(), operand);
-                }
+        }
+
+        Map<OWLClassExpression, Optional<OWLClassExpression>> cache = mustBeEquiv ? equivTranslations
+                : translations;
+        Optional<OWLClassExpression> cached = cache.get(x);
+        if ( cached != null ) {
+            cacheHits.increment();
+            return cached.orElse(null);
+        }
+
+        cacheMisses.increment();
+        OWLClassExpression tx = translateAnonymousExpression(x, mustBeEquiv);
+        cache.put(x, Optional.ofNullable(tx));
+        return tx;
+    }
+
+    private OWLClassExpression translateAnonymousExpression(OWLClassExpression x, boolean mustBeEquiv) {
+        if ( x instanceof OWLObjectSomeValuesFrom ) {
+            OWLObjectSomeValuesFrom svf = (OWLObjectSomeValuesFrom) x;
+            OWLClassExpression filler = translateExpression(svf.getFiller(), mustBeEquiv);
+            if ( filler != null ) {
+                return factory.getOWLObjectSomeValuesFrom(svf.getProperty(), filler);
+            }
+        } else if ( x instanceof OWLObjectIntersectionOf && extendedTranslation ) {
+            OWLObjectIntersectionOf oio = (OWLObjectIntersectionOf) x;
+            Set<OWLClassExpression> operands = translateExpressionOperands(oio, mustBeEquiv);
+            if ( operands.size() == oio.getOperands().size() ) {
+                return factory.getOWLObjectIntersectionOf(operands);
+            }
+        } else if ( x instanceof OWLObjectUnionOf && extendedTranslation ) {
+            OWLObjectUnionOf ouo = (OWLObjectUnionOf) x;
+            Set<OWLClassExpression> operands = translateExpressionOperands(ouo, mustBeEquiv);
+            if ( operands.size() == ouo.getOperands().size() ) {
+                return factory.getOWLObjectUnionOf(operands);
+            }
+        } else if ( x instanceof OWLObjectComplementOf && extendedTranslation ) {
+            OWLObjectComplementOf oco = (OWLObjectComplementOf) x;
+            OWLClassExpression operand = translateExpression(oco.getOperand(), mustBeEquiv);
+            if ( operand != null ) {
+                return factory.getOWLObjectComplementOf(operand);
+            }
+        } else if ( x instanceof OWLObjectExactCardinality && extendedTranslation ) {
+            OWLObjectExactCardinality oec = (OWLObjectExactCardinality) x;
+            OWLClassExpression operand = translateExpression(oec.getFiller(), mustBeEquiv);
+            if ( operand != null ) {
+                return factory.getOWLObjectExactCardinality(oec.getCardinality(), oec.getProperty(), operand);
+            }
+        } else if ( x instanceof OWLObjectMinCardinality && extendedTranslation ) {
+            OWLObjectMinCardinality omc = (OWLObjectMinCardinality) x;
+            OWLClassExpression operand = translateExpression(omc.getFiller(), mustBeEquiv);
+            if ( operand != null ) {
+                return factory.getOWLObjectMinCardinality(omc.getCardinality(), omc.getProperty(), operand);
+            }
+        } else if ( x instanceof OWLObjectMaxCardinality && extendedTranslation ) {
+            OWLObjectMaxCardinality omc = (OWLObjectMaxCardinality) x;
+            OWLClassExpression operand = translateExpression(omc.getFiller(), mustBeEquiv);
+            if ( operand != null ) {
+                return factory.getOWLObjectMaxCardinality(omc.getCardinality(), omc.getProperty(), operand);
             }
         }
         return null;
@@ -383,118 +903,260 @@ public class SpeciesMerger extends OWLAxiomVisitorAdapter {
         return operands;
     }
 
-    private boolean isSkippable(OWLClass c) {
-        for ( OWLAnnotationAssertionAxiom ax : ontology.getAnnotationAssertionAxioms(c.getIRI()) ) {
-            if ( !ax.getProperty().getIRI().toString().endsWith("inSubset") ) {
+    /*
+     * Prepare a set of all the classes that belong to one of the skipped subsets,
+     * so that we don't have to check the annotations of every class in the
+     * signature of every translated axiom.
+     */
+    private void listSkippableClasses() {
+        skippedClasses = new HashSet<OWLClass>();
+        Map<OWLAnnotationProperty, Boolean> subsetProperties = new HashMap<OWLAnnotationProperty, Boolean>();
+        Map<IRI, Boolean> subsetValues = new HashMap<IRI, Boolean>();
+
+        for ( OWLAnnotationAssertionAxiom ax : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION) ) {
+            if ( !ax.getSubject().isIRI() || !ax.getValue().isIRI() ) {
                 continue;
             }
 
-            OWLAnnotationValue v = ax.getValue();
-            if ( v.isIRI() ) {
-                String val = v.asIRI().toString();
-                if ( val.contains("upper_level") || val.contains("non_informative")
-                        || val.contains("early_development") ) {
-                    return true;
-                }
+            if ( !subsetProperties.computeIfAbsent(ax.getProperty(),
+                    k -> k.getIRI().toString().endsWith("inSubset")) ) {
+                continue;
             }
-        }
 
-        return false;
+            if ( subsetValues.computeIfAbsent(ax.getValue().asIRI().get(), k -> isSkippedSubset(k)) ) {
+                skippedClasses.add(factory.getOWLClass((IRI) ax.getSubject()));
+            }
+        }
     }
 
-
-    @Override
-    public void visit(OWLEquivalentClassesAxiom axiom) {
-        // Equivalent classes axioms are translated by translating their component class
-        // expressions.
-        Set<OWLClassExpression> xs = new HashSet<OWLClassExpression>();
-        for ( OWLClassExpression x : axiom.getClassExpressions() ) {
-            OWLClassExpression tx = translateExpression(x, true);
-            if ( tx == null ) {
-                // If one class expression cannot be translated, the entire
-                // equivalent axiom cannot be translated.
-                return;
+    private boolean isSkippedSubset(IRI subset) {
+        String val = subset.toString();
+        for ( String skipped : skippedSubsets ) {
+            if ( val.contains(skipped) ) {
+                return true;
             }
-            xs.add(tx);
         }
+        return false;
+    }
 
-        translatedAxiom = factory.getOWLEquivalentClassesAxiom(xs);
+    private boolean isSkippable(OWLClass c) {
+        return skippedClasses.contains(c);
     }
 
-    @Override
-    public void visit(OWLAnnotationAssertionAxiom axiom) {
-        if ( ecMap.containsKey(subject) ) {
-            // No translation needed for the unfolded classes.
-            return;
+    /*
+     * The visitor that actually translates axioms. Translation state is kept in
+     * this object rather than in the merger itself, so that several classes can
+     * be translated concurrently.
+     */
+    private class AxiomTranslator extends OWLAxiomVisitorAdapter {
+
+        private OWLClass subject;
+        private OWLAxiom translatedAxiom;
+
+        /*
+         * Translate all the axioms of a taxon-specific class.
+         */
+        Set<OWLAxiom> translateClass(OWLClass c, Set<OWLAxiom> axioms) {
+            Set<OWLAxiom> newAxioms = new HashSet<OWLAxiom>();
+            subject = c;
+            for ( OWLAxiom axiom : axioms ) {
+                translate(axiom);
+
+                if ( translatedAxiom != null && ecMap.containsKey(c) ) {
+                    for ( OWLClass sc : translatedAxiom.getClassesInSignature() ) {
+                        if ( isSkippable(sc) ) {
+                            translatedAxiom = null;
+                            break;
+                        }
+                    }
+                }
+
+                if ( translatedAxiom != null && !isProbeAxiom(translatedAxiom) ) {
+                    newAxioms.add(translatedAxiom);
+                }
+            }
+            return newAxioms;
         }
 
-        if ( axiom.getProperty().isLabel() ) {
-            // Translate the label by appending the taxon-specific suffix.
-            OWLLiteral lit = axiom.getValue().asLiteral().get();
-            String newLabel = lit.getLiteral() + " (" + suffix + ")";
-            translatedAxiom = factory.getOWLAnnotationAssertionAxiom(axiom.getProperty(), axiom.getSubject(),
-                    factory.getOWLLiteral(newLabel));
-        } else {
-            // Use other annotations as they are.
-            translatedAxiom = axiom;
+        /*
+         * Translate a single axiom.
+         */
+        OWLAxiom translate(OWLAxiom axiom) {
+            translatedAxiom = null;
+            axiom.accept(this);
+            return translatedAxiom;
         }
-    }
 
-    @Override
-    public void visit(OWLSubClassOfAxiom axiom) {
-        OWLClassExpression trSub = translateExpression(axiom.getSubClass(), true);
-        OWLClassExpression trSuper = translateExpression(axiom.getSuperClass(), false);
+        @Override
+        public void visit(OWLEquivalentClassesAxiom axiom) {
+            // Equivalent classes axioms are translated by translating their component class
+            // expressions.
+            Set<OWLClassExpression> xs = new HashSet<OWLClassExpression>();
+            for ( OWLClassExpression x : axiom.getClassExpressions() ) {
+                OWLClassExpression tx = translateExpression(x, true);
+                if ( tx == null ) {
+                    // If one class expression cannot be translated, the entire
+                    // equivalent axiom cannot be translated.
+                    return;
+                }
+                xs.add(tx);
+            }
 
-        // Both sides of the axiom need to be translatable.
-        if ( trSub == null || trSuper == null ) {
-            return;
+            translatedAxiom = factory.getOWLEquivalentClassesAxiom(xs);
         }
 
-        // Avoid circular references.
-        if ( trSub.getClassesInSignature().contains(trSuper) ) {
-            return;
-        }
+        @Override
+        public void visit(OWLAnnotationAssertionAxiom axiom) {
+            if ( ecMap.containsKey(subject) ) {
+                // No translation needed for the unfolded classes.
+                return;
+            }
 
-        // No need to perform the checks below if this is a general class axiom
-        if ( axiom.getSubClass().isAnonymous() ) {
-            translatedAxiom = factory.getOWLSubClassOfAxiom(trSub, trSuper);
-            return;
+            if ( axiom.getProperty().isLabel() ) {
+                // Translate the label by appending the taxon-specific suffix.
+                OWLLiteral lit = axiom.getValue().asLiteral().get();
+                String newLabel = lit.getLiteral() + " (" + suffix + ")";
+                translatedAxiom = factory.getOWLAnnotationAssertionAxiom(axiom.getProperty(), axiom.getSubject(),
+                        factory.getOWLLiteral(newLabel));
+            } else {
+                // Use other annotations as they are.
+                translatedAxiom = axiom;
+            }
         }
 
-        // No need for this SubClassOf axiom if the taxon-neutral class is already a
-        // subclass of the translated superclass.
-        if ( !trSub.equals(axiom.getSubClass()) ) {
-            if ( reasoner.getSuperClasses(ecMap.get(axiom.getSubClass()), false).getFlattened().contains(trSuper) ) {
+        @Override
+        public void visit(OWLSubClassOfAxiom axiom) {
+            OWLClassExpression trSub = translateExpression(axiom.getSubClass(), true);
+            OWLClassExpression trSuper = translateExpression(axiom.getSuperClass(), false);
+
+            // Both sides of the axiom need to be translatable.
+            if ( trSub == null || trSuper == null ) {
                 return;
             }
 
-            Set<OWLClass> ancs = new HashSet<OWLClass>();
-            ancs.addAll(reasoner.getSuperClasses(ecMap.get(axiom.getSubClass()), false).getFlattened());
-            ancs.addAll(reasoner.getEquivalentClasses(ecMap.get(axiom.getSubClass())).getEntities());
-            for ( OWLClass p : ancs ) {
-                for ( OWLSubClassOfAxiom sca : ontology.getSubClassAxiomsForSubClass(p) ) {
-                    if ( sca.getSuperClass().equals(trSuper) ) {
-                        return;
-                    }
-                }
+            // Avoid circular references.
+            if ( trSub.getClassesInSignature().contains(trSuper) ) {
+                return;
             }
 
-            if ( includedProperties.size() > 0 ) {
-                Set<OWLObjectProperty> props = axiom.getObjectPropertiesInSignature();
-                boolean ok = props.isEmpty();
-                for ( OWLObjectProperty p : props ) {
-                    if ( includedProperties.contains(p) ) {
-                        ok = true;
-                        break;
-                    }
-                }
-                if ( !ok ) {
+            // No need to perform the checks below if this is a general class axiom
+            if ( axiom.getSubClass().isAnonymous() ) {
+                translatedAxiom = factory.getOWLSubClassOfAxiom(trSub, trSuper);
+                return;
+            }
+
+            // No need for this SubClassOf axiom if the taxon-neutral class is already a
+            // subclass of the translated superclass.
+            if ( !trSub.equals(axiom.getSubClass()) ) {
+                if ( ancestors.isKnownSubClassOf(ecMap.get(axiom.getSubClass()), trSuper) ) {
                     return;
                 }
+
+                if ( includedProperties.size() > 0 ) {
+                    Set<OWLObjectProperty> props = axiom.getObjectPropertiesInSignature();
+                    boolean ok = props.isEmpty();
+                    for ( OWLObjectProperty p : props ) {
+                        if ( includedProperties.contains(p) ) {
+                            ok = true;
+                            break;
+                        }
+                    }
+                    if ( !ok ) {
+                        return;
+                    }
+                }
             }
+
+            translatedAxiom = factory.getOWLSubClassOfAxiom(trSub, trSuper);
         }
+    }
 
-        translatedAxiom = factory.getOWLSubClassOfAxiom(trSub, trSuper);
+    /**
+     * A summary of what a merge operation would do, as computed by
+     * {@link SpeciesMerger#plan(IRI, IRI)}.
+     */
+    public static class MergePlan {
+        private IRI taxon;
+        private IRI property;
+        private boolean taxonFound;
+        private int taxonSpecificClasses;
+        private int mergedClasses;
+        private int axioms;
+        private int generalClassAxioms;
+
+        private MergePlan(IRI taxon, IRI property) {
+            this.taxon = taxon;
+            this.property = property;
+        }
+
+        /**
+         * Gets the taxon to unfold for.
+         * 
+         * @return The taxon IRI.
+         */
+        public IRI getTaxon() {
+            return taxon;
+        }
+
+        /**
+         * Gets the property linking taxon-specific classes to their taxon-neutral
+         * counterparts.
+         * 
+         * @return The link property IRI.
+         */
+        public IRI getProperty() {
+            return property;
+        }
+
+        /**
+         * Indicates whether the taxon is present in the ontology at all. If it is
+         * not, the merge operation is most likely a mistake.
+         * 
+         * @return {@code true} if the taxon is in the signature of the ontology.
+         */
+        public boolean isTaxonFound() {
+            return taxonFound;
+        }
+
+        /**
+         * Gets the number of taxon-specific classes, whose axioms would be
+         * translated.
+         * 
+         * @return The number of taxon-specific classes.
+         */
+        public int getTaxonSpecificClasses() {
+            return taxonSpecificClasses;
+        }
+
+        /**
+         * Gets the number of taxon-specific classes that would be merged into their
+         * taxon-neutral counterpart.
+         * 
+         * @return The number of merged classes.
+         */
+        public int getMergedClasses() {
+            return mergedClasses;
+        }
+
+        /**
+         * Gets the number of axioms that would be translated.
+         * 
+         * @return The number of axioms to translate.
+         */
+        public int getAxioms() {
+            return axioms;
+        }
+
+        /**
+         * Gets the number of general class axioms that refer to a merged class, and
+         * would therefore be translated or removed (depending on the GCA merge
+         * mode).
+         * 
+         * @return The number of affected general class axioms.
+         */
+        public int getGeneralClassAxioms() {
+            return generalClassAxioms;
+        }
     }
 
     /**
@@ -0,0 +1,96 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+
+/**
+ * Writes an inference-diff report as a TSV file, with one row for each removed
+ * or added subclass. Classes without any change do not appear in the report.
+ */
+public class TSVDiffReportWriter extends AbstractDiffReportWriter {
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param out        The writer to write the report to; it should be buffered.
+     * @param baseLabels The labels of the classes in the base ontology.
+     * @param headLabels The labels of the classes in the new ontology.
+     */
+    public TSVDiffReportWriter(Writer out, Map<IRI, String> baseLabels, Map<IRI, String> headLabels) {
+        super(out, baseLabels, headLabels);
+    }
+
+    @Override
+    public void writeHeader(String description, int count) throws IOException {
+        out.write("class\tclass_label\tchange\tsubclass\tsubclass_label\n");
+    }
+
+    @Override
+    public void writeClass(OWLClass klass, Collection<OWLClass> removed, Collection<OWLClass> added)
+            throws IOException {
+        String label = escape(getHeadLabel(klass));
+        for ( OWLClass subclass : removed ) {
+            writeRow(klass, label, "removed", subclass, getBaseLabel(subclass));
+        }
+        for ( OWLClass subclass : added ) {
+            writeRow(klass, label, "added", subclass, getHeadLabel(subclass));
+        }
+    }
+
+    private void writeRow(OWLClass klass, String label, String change, OWLClass subclass, String subLabel)
+            throws IOException {
+        out.write(klass.getIRI().toString());
+        out.write('\t');
+        out.write(label);
+        out.write('\t');
+        out.write(change);
+        out.write('\t');
+        out.write(subclass.getIRI().toString());
+        out.write('\t');
+        out.write(escape(subLabel));
+        out.write('\n');
+    }
+
+    /*
+     * Labels should not contain tabs or newlines, but better safe than sorry.
+     */
+    private String escape(String s) {
+        return s.replace('\t', ' ').replace('\n', ' ');
+    }
+}
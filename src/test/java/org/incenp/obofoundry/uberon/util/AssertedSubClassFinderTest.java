@@ -0,0 +1,117 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+public class AssertedSubClassFinderTest {
+
+    private OWLOntologyManager manager;
+    private OWLDataFactory factory;
+    private OWLOntology ontology;
+    private OWLObjectProperty partOf;
+    private OWLClass taxon;
+
+    @Before
+    public void setUp() throws OWLOntologyCreationException {
+        manager = OWLManager.createOWLOntologyManager();
+        factory = manager.getOWLDataFactory();
+        ontology = manager.createOntology();
+        partOf = factory.getOWLObjectProperty(IRI.create("http://example.org/part_of"));
+        taxon = getClass("TAXON");
+
+        // SUBTAXON is a subclass of TAXON
+        manager.addAxiom(ontology, factory.getOWLSubClassOfAxiom(getClass("SUBTAXON"), taxon));
+        // X EquivalentTo N and (part_of some SUBTAXON)
+        manager.addAxiom(ontology, factory.getOWLEquivalentClassesAxiom(getClass("X"),
+                factory.getOWLObjectIntersectionOf(getClass("N"), partOf(getClass("SUBTAXON")))));
+        // Y SubClassOf X
+        manager.addAxiom(ontology, factory.getOWLSubClassOfAxiom(getClass("Y"), getClass("X")));
+        // Z SubClassOf part_of some TAXON
+        manager.addAxiom(ontology, factory.getOWLSubClassOfAxiom(getClass("Z"), partOf(taxon)));
+        // W SubClassOf N (not taxon-specific)
+        manager.addAxiom(ontology, factory.getOWLSubClassOfAxiom(getClass("W"), getClass("N")));
+    }
+
+    @Test
+    public void testFindAssertedSubClasses() {
+        AssertedSubClassFinder finder = new AssertedSubClassFinder(ontology);
+        assertEquals(new HashSet<OWLClass>(Arrays.asList(getClass("X"), getClass("Y"), getClass("Z"))),
+                finder.find(partOf, taxon));
+    }
+
+    @Test
+    public void testGiveUpOnDefinedClass() {
+        // Z EquivalentTo M and (has_part some Q): any class that is both a M and
+        // has_part some Q is an inferred subclass of Z, which the finder cannot see.
+        OWLObjectProperty hasPart = factory.getOWLObjectProperty(IRI.create("http://example.org/has_part"));
+        manager.addAxiom(ontology, factory.getOWLEquivalentClassesAxiom(getClass("Z"),
+                factory.getOWLObjectIntersectionOf(getClass("M"),
+                        factory.getOWLObjectSomeValuesFrom(hasPart, getClass("Q")))));
+
+        AssertedSubClassFinder finder = new AssertedSubClassFinder(ontology);
+        assertNull(finder.find(partOf, taxon));
+    }
+
+    @Test
+    public void testGiveUpOnDomainAxiom() {
+        OWLObjectProperty p = factory.getOWLObjectProperty(IRI.create("http://example.org/p"));
+        manager.addAxiom(ontology, factory.getOWLObjectPropertyDomainAxiom(p, getClass("Y")));
+
+        AssertedSubClassFinder finder = new AssertedSubClassFinder(ontology);
+        assertNull(finder.find(partOf, taxon));
+    }
+
+    private OWLClass getClass(String name) {
+        return factory.getOWLClass(IRI.create("http://example.org/" + name));
+    }
+
+    private OWLClassExpression partOf(OWLClass filler) {
+        return factory.getOWLObjectSomeValuesFrom(partOf, filler);
+    }
+}
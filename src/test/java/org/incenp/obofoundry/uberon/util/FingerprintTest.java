@@ -0,0 +1,126 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+public class FingerprintTest {
+
+    private static final String ONTOLOGY = "Prefix(:=<http://example.org/>)\n"
+            + "Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)\n"
+            + "Ontology(<http://example.org/test>\n"
+            + "SubClassOf(:A :B)\n"
+            + "SubClassOf(:A ObjectSomeValuesFrom(:part_of :C))\n"
+            + "EquivalentClasses(:D ObjectIntersectionOf(:B ObjectSomeValuesFrom(:part_of :E)))\n"
+            + "AnnotationAssertion(rdfs:label :A \"a\"@en)\n"
+            + ")";
+
+    @Test
+    public void testStableAcrossManagers() throws OWLOntologyCreationException {
+        OWLOntology ont1 = load();
+        OWLOntology ont2 = load();
+        assertEquals(Fingerprint.of(ont1), Fingerprint.of(ont2));
+
+        // The same axiom built programmatically in yet another manager
+        OWLDataFactory factory = OWLManager.createOWLOntologyManager().getOWLDataFactory();
+        OWLAxiom axiom = factory.getOWLSubClassOfAxiom(getClass(factory, "A"),
+                factory.getOWLObjectSomeValuesFrom(getProperty(factory, "part_of"), getClass(factory, "C")));
+        int found = 0;
+        for ( OWLAxiom ax : ont1.getAxioms() ) {
+            if ( ax.equals(axiom) ) {
+                assertEquals(Fingerprint.of(ax), Fingerprint.of(axiom));
+                found += 1;
+            }
+        }
+        assertEquals(1, found);
+        assertEquals(Fingerprint.of(axiom), Fingerprint.of(axiom.getAxiomWithoutAnnotations()));
+    }
+
+    @Test
+    public void testEqualObjectsHaveEqualFingerprints() {
+        OWLDataFactory factory = OWLManager.getOWLDataFactory();
+        OWLClass a = getClass(factory, "A");
+        OWLClass b = getClass(factory, "B");
+
+        assertEquals(Fingerprint.of(factory.getOWLEquivalentClassesAxiom(a, b)),
+                Fingerprint.of(factory.getOWLEquivalentClassesAxiom(b, a)));
+        assertNotEquals(Fingerprint.of(factory.getOWLSubClassOfAxiom(a, b)),
+                Fingerprint.of(factory.getOWLSubClassOfAxiom(b, a)));
+        assertNotEquals(Fingerprint.of(factory.getOWLSubClassOfAxiom(a, b)),
+                Fingerprint.of(factory.getOWLSubClassOfAxiom(a, b, Collections.singleton(factory
+                        .getOWLAnnotation(factory.getRDFSComment(), factory.getOWLLiteral("comment"))))));
+    }
+
+    @Test
+    public void testOntologyFingerprintOnlyCoversLogicalAxioms() throws OWLOntologyCreationException {
+        OWLOntology ont = load();
+        String before = Fingerprint.of(ont);
+        OWLOntologyManager manager = ont.getOWLOntologyManager();
+        OWLDataFactory factory = manager.getOWLDataFactory();
+
+        manager.addAxiom(ont, factory.getOWLAnnotationAssertionAxiom(factory.getRDFSComment(),
+                IRI.create("http://example.org/A"), factory.getOWLLiteral("comment")));
+        assertEquals(before, Fingerprint.of(ont));
+
+        manager.addAxiom(ont, factory.getOWLSubClassOfAxiom(getClass(factory, "B"), getClass(factory, "F")));
+        assertNotEquals(before, Fingerprint.of(ont));
+        assertEquals("4:", Fingerprint.of(ont).substring(0, 2));
+    }
+
+    private OWLOntology load() throws OWLOntologyCreationException {
+        return OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+    }
+
+    private OWLClass getClass(OWLDataFactory factory, String name) {
+        return factory.getOWLClass(IRI.create("http://example.org/" + name));
+    }
+
+    private OWLObjectProperty getProperty(OWLDataFactory factory, String name) {
+        return factory.getOWLObjectProperty(IRI.create("http://example.org/" + name));
+    }
+}
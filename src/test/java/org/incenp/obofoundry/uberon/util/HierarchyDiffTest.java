@@ -0,0 +1,145 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+
+public class HierarchyDiffTest {
+
+    private OWLDataFactory factory = OWLManager.getOWLDataFactory();
+
+    @Test
+    public void testEmptyBase() {
+        HierarchyDiff diff = new HierarchyDiff(empty(), diamond());
+
+        assertEquals(set("A", "B", "C"), diff.getAffectedClasses());
+        assertEquals(set("B", "C"), new HashSet<OWLClass>(diff.getAddedSubClasses(getClass("A"))));
+        assertEquals(Arrays.asList(getClass("D")), diff.getAddedSubClasses(getClass("B")));
+        assertEquals(Arrays.asList(getClass("D")), diff.getAddedSubClasses(getClass("C")));
+        for ( OWLClass c : diff.getAffectedClasses() ) {
+            assertTrue(diff.getRemovedSubClasses(c).isEmpty());
+        }
+    }
+
+    @Test
+    public void testEmptyHead() {
+        HierarchyDiff diff = new HierarchyDiff(diamond(), empty());
+
+        assertEquals(set("A", "B", "C"), diff.getAffectedClasses());
+        assertEquals(set("B", "C"), new HashSet<OWLClass>(diff.getRemovedSubClasses(getClass("A"))));
+        assertEquals(Arrays.asList(getClass("D")), diff.getRemovedSubClasses(getClass("B")));
+        assertEquals(Arrays.asList(getClass("D")), diff.getRemovedSubClasses(getClass("C")));
+        for ( OWLClass c : diff.getAffectedClasses() ) {
+            assertTrue(diff.getAddedSubClasses(c).isEmpty());
+        }
+    }
+
+    @Test
+    public void testBothEmpty() {
+        assertTrue(new HierarchyDiff(empty(), empty()).getAffectedClasses().isEmpty());
+    }
+
+    @Test
+    public void testIdenticalHierarchies() {
+        HierarchyDiff diff = new HierarchyDiff(diamond(), diamond());
+        assertTrue(diff.getAffectedClasses().isEmpty());
+        assertTrue(diff.getAddedSubClasses(getClass("A")).isEmpty());
+        assertTrue(diff.getRemovedSubClasses(getClass("A")).isEmpty());
+    }
+
+    @Test
+    public void testMovedSubClass() {
+        // Same as the diamond, but D is no longer a subclass of C, and the
+        // classes are indexed in a different order
+        OWLClass[] classes = new OWLClass[] { getClass("D"), getClass("C"), getClass("B"), getClass("A") };
+        List<int[]> edges = new ArrayList<int[]>();
+        edges.add(new int[] { 2, 3 });
+        edges.add(new int[] { 1, 3 });
+        edges.add(new int[] { 0, 2 });
+        HierarchyDiff diff = new HierarchyDiff(diamond(), InferredHierarchy.fromEdges(classes, edges));
+
+        assertEquals(set("C"), diff.getAffectedClasses());
+        assertEquals(Arrays.asList(getClass("D")), diff.getRemovedSubClasses(getClass("C")));
+        assertTrue(diff.getAddedSubClasses(getClass("C")).isEmpty());
+    }
+
+    @Test
+    public void testFilter() {
+        HierarchyDiff diff = new HierarchyDiff(empty(), diamond(), c -> c.equals(getClass("B")));
+
+        assertEquals(set("B"), diff.getAffectedClasses());
+        assertEquals(Arrays.asList(getClass("D")), diff.getAddedSubClasses(getClass("B")));
+        assertTrue(diff.getAddedSubClasses(getClass("A")).isEmpty());
+    }
+
+    /*
+     * Builds a diamond-shaped hierarchy: A > B, C > D.
+     */
+    private InferredHierarchy diamond() {
+        OWLClass[] classes = new OWLClass[] { getClass("A"), getClass("B"), getClass("C"), getClass("D") };
+        List<int[]> edges = new ArrayList<int[]>();
+        edges.add(new int[] { 1, 0 });
+        edges.add(new int[] { 2, 0 });
+        edges.add(new int[] { 3, 1 });
+        edges.add(new int[] { 3, 2 });
+        return InferredHierarchy.fromEdges(classes, edges);
+    }
+
+    private InferredHierarchy empty() {
+        return InferredHierarchy.fromEdges(new OWLClass[0], Collections.emptyList());
+    }
+
+    private OWLClass getClass(String name) {
+        return factory.getOWLClass(IRI.create("http://example.org/" + name));
+    }
+
+    private HashSet<OWLClass> set(String... names) {
+        HashSet<OWLClass> set = new HashSet<OWLClass>();
+        for ( String name : names ) {
+            set.add(getClass(name));
+        }
+        return set;
+    }
+}
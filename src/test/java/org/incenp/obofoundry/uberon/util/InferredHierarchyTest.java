@@ -0,0 +1,192 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasonerFactory;
+
+public class InferredHierarchyTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private OWLDataFactory factory = OWLManager.getOWLDataFactory();
+
+    @Test
+    public void testCSRLayout() {
+        // A is the superclass of B and C, both of which are superclasses of D
+        InferredHierarchy h = diamond();
+
+        assertEquals(4, h.size());
+        assertEquals(classes("B", "C", "D"), h.getSubClasses(getClass("A")));
+        assertEquals(classes("D"), h.getSubClasses(getClass("B")));
+        assertTrue(h.getSubClasses(getClass("D")).isEmpty());
+        assertEquals(classes("B", "C"), h.getDirectSuperClasses(getClass("D")));
+        assertTrue(h.getDirectSuperClasses(getClass("A")).isEmpty());
+
+        assertFalse(h.contains(getClass("E")));
+        assertTrue(h.getSubClasses(getClass("E")).isEmpty());
+        assertTrue(h.getDirectSuperClasses(getClass("E")).isEmpty());
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        InferredHierarchy h = diamond();
+        File file = folder.newFile("hierarchy.bin");
+        h.write(file, "key");
+
+        // Read back with a different data factory
+        OWLDataFactory other = OWLManager.createOWLOntologyManager().getOWLDataFactory();
+        InferredHierarchy h2 = InferredHierarchy.read(file, "key", other);
+        assertEquals(h.size(), h2.size());
+        for ( String name : Arrays.asList("A", "B", "C", "D") ) {
+            OWLClass c = getClass(name);
+            assertTrue(h2.contains(c));
+            assertEquals(h.getSubClasses(c), h2.getSubClasses(c));
+            assertEquals(h.getDirectSuperClasses(c), h2.getDirectSuperClasses(c));
+        }
+        assertTrue(Arrays.equals(h.getSortedEdges(identity(4), null), h2.getSortedEdges(identity(4), null)));
+
+        // A snapshot written with another key is ignored
+        assertNull(InferredHierarchy.read(file, "other key", factory));
+    }
+
+    @Test
+    public void testRoundTripEmpty() throws IOException {
+        InferredHierarchy h = InferredHierarchy.fromEdges(new OWLClass[0], Collections.emptyList());
+        File file = folder.newFile("empty.bin");
+        h.write(file, "");
+
+        InferredHierarchy h2 = InferredHierarchy.read(file, "", factory);
+        assertEquals(0, h2.size());
+        assertFalse(h2.contains(getClass("A")));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadInvalidFile() throws IOException {
+        File file = folder.newFile("invalid.bin");
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+        try {
+            out.writeInt(0x12345678);
+            out.writeInt(1);
+        } finally {
+            out.close();
+        }
+        InferredHierarchy.read(file, "key", factory);
+    }
+
+    @Test
+    public void testFromReasoner() throws OWLOntologyCreationException {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        OWLOntology ontology = manager.createOntology();
+        manager.addAxiom(ontology, factory.getOWLSubClassOfAxiom(getClass("B"), getClass("A")));
+        manager.addAxiom(ontology, factory.getOWLSubClassOfAxiom(getClass("C"), getClass("B")));
+        manager.addAxiom(ontology, factory.getOWLEquivalentClassesAxiom(getClass("B"), getClass("B2")));
+        manager.addAxiom(ontology, factory.getOWLSubClassOfAxiom(getClass("D"), getClass("A")));
+
+        OWLReasoner reasoner = new StructuralReasonerFactory().createReasoner(ontology);
+        try {
+            InferredHierarchy h = InferredHierarchy.fromReasoner(reasoner, Collections.singleton(getClass("B")));
+            assertEquals(3, h.size());
+            assertTrue(h.contains(getClass("B2")));
+            assertFalse(h.contains(getClass("A")));
+            assertFalse(h.contains(getClass("D")));
+            assertEquals(classes("C"), h.getSubClasses(getClass("B")));
+            assertEquals(classes("C"), h.getSubClasses(getClass("B2")));
+            assertEquals(classes("B", "B2"), h.getDirectSuperClasses(getClass("C")));
+
+            h = InferredHierarchy.fromReasoner(reasoner);
+            assertEquals(classes("B", "B2", "C", "D"), h.getSubClasses(getClass("A")));
+            assertEquals(classes("A"), h.getDirectSuperClasses(getClass("D")));
+        } finally {
+            reasoner.dispose();
+        }
+    }
+
+    /*
+     * Builds a diamond-shaped hierarchy: A > B, C > D.
+     */
+    private InferredHierarchy diamond() {
+        OWLClass[] classes = new OWLClass[] { getClass("A"), getClass("B"), getClass("C"), getClass("D") };
+        List<int[]> edges = new ArrayList<int[]>();
+        edges.add(new int[] { 3, 2 });
+        edges.add(new int[] { 1, 0 });
+        edges.add(new int[] { 3, 1 });
+        edges.add(new int[] { 2, 0 });
+        return InferredHierarchy.fromEdges(classes, edges);
+    }
+
+    private int[] identity(int n) {
+        int[] remap = new int[n];
+        for ( int i = 0; i < n; i++ ) {
+            remap[i] = i;
+        }
+        return remap;
+    }
+
+    private OWLClass getClass(String name) {
+        return factory.getOWLClass(IRI.create("http://example.org/" + name));
+    }
+
+    private HashSet<OWLClass> classes(String... names) {
+        HashSet<OWLClass> set = new HashSet<OWLClass>();
+        for ( String name : names ) {
+            set.add(getClass(name));
+        }
+        return set;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Uberon ROBOT plugin
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * Neither the name of copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.incenp.obofoundry.uberon.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrefixMatcherTest {
+
+    private static final String OBO = "http://purl.obolibrary.org/obo/";
+
+    private PrefixMatcher matcher;
+
+    @Before
+    public void setUp() {
+        matcher = new PrefixMatcher();
+        matcher.addPrefix(OBO, 1.0);
+        matcher.addPrefix(OBO + "UBERON_", 3.0);
+        matcher.addPrefix("UBERON", 2.0);
+        matcher.addPrefix("CL", null);
+    }
+
+    @Test
+    public void testEmptyMatcher() {
+        PrefixMatcher empty = new PrefixMatcher();
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.matches(OBO + "UBERON_0000001"));
+        assertNull(empty.getMatchingPrefix(OBO + "UBERON_0000001"));
+        assertTrue(empty.getMatchingPrefixes(OBO + "UBERON_0000001").isEmpty());
+
+        assertFalse(matcher.isEmpty());
+    }
+
+    @Test
+    public void testLongestPrefixWins() {
+        // Both kinds of prefixes match, the longest IRI prefix wins
+        assertEquals(OBO + "UBERON_", matcher.getMatchingPrefix(OBO + "UBERON_0000001"));
+        assertEquals(3.0, matcher.getScore(OBO + "UBERON_0000001"), 0);
+
+        // The shorter IRI prefix is still longer than the ID prefix
+        assertEquals(OBO, matcher.getMatchingPrefix(OBO + "UBERONX_0000001"));
+        assertEquals(1.0, matcher.getScore(OBO + "UBERONX_0000001"), 0);
+
+        // Outside of the OBO namespace, only the ID prefix matches
+        assertEquals("UBERON", matcher.getMatchingPrefix("http://example.org/UBERON_0000001"));
+        assertEquals(2.0, matcher.getScore("http://example.org/UBERON_0000001"), 0);
+    }
+
+    @Test
+    public void testIdPrefixBoundaries() {
+        assertTrue(matcher.matches("http://example.org/ontology#UBERON_0000001"));
+        assertTrue(matcher.matches("http://example.org/UBERON"));
+        assertFalse(matcher.matches("http://example.org/XUBERON_0000001"));
+        assertFalse(matcher.matches("UBERON_0000001"));
+
+        // A matching prefix without a score
+        assertEquals("CL", matcher.getMatchingPrefix("http://example.org/CL_0000000"));
+        assertNull(matcher.getScore("http://example.org/CL_0000000"));
+    }
+
+    @Test
+    public void testGetMatchingPrefixes() {
+        assertEquals(new HashSet<String>(Arrays.asList(OBO, OBO + "UBERON_", "UBERON")),
+                matcher.getMatchingPrefixes(OBO + "UBERON_0000001"));
+        assertEquals(new HashSet<String>(Arrays.asList(OBO, "CL")), matcher.getMatchingPrefixes(OBO + "CL_0000000"));
+        assertEquals(Collections.singleton("UBERON"),
+                matcher.getMatchingPrefixes("http://example.org/a/UBERON/b#UBERON_1"));
+        assertTrue(matcher.getMatchingPrefixes("http://example.org/GO_0000001").isEmpty());
+    }
+
+    @Test
+    public void testReplaceScore() {
+        matcher.addIdPrefix("UBERON", 5.0);
+        assertEquals(5.0, matcher.getScore("http://example.org/UBERON_0000001"), 0);
+    }
+}